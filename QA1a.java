@@ -16,6 +16,18 @@
 // Example: Input: [[1, 3, 2], [4, 6, 8], [3, 1, 5]] Output: 7  
 // Explanation: Decorate venue 0 with theme 0, venue 1 with theme 1, and venue 2 with theme 0. Minimum cost: 1 + 
 // 6 + 1 = 7. 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+
 public class QA1a {
 
     public static int minCost(int[][] costs) {
@@ -67,9 +79,254 @@ public class QA1a {
         return min;
     }
 
+    // Result of the rolling-row solver: total cost and the theme chosen for each venue
+    public static class DecorationPlan {
+        int totalCost;
+        int[] themes;
+
+        DecorationPlan(int totalCost, int[] themes) {
+            this.totalCost = totalCost;
+            this.themes = themes;
+        }
+
+        public int getTotalCost() {
+            return totalCost;
+        }
+
+        public int[] getThemes() {
+            return themes;
+        }
+    }
+
+    // Same answer as minCost, but in O(n*k) time and O(k) dp memory.
+    // Only the best and second best values of the previous row are kept; the argmin of
+    // each row is remembered so that the chosen theme of every venue can be rebuilt.
+    // Returns null when no valid arrangement exists (a single theme for several venues).
+    public static DecorationPlan minCostWithPlan(int[][] costs) {
+        if (costs == null || costs.length == 0 || costs[0].length == 0) {
+            return new DecorationPlan(0, new int[0]);
+        }
+
+        int n = costs.length;
+        int k = costs[0].length;
+        if (k == 1 && n > 1) {
+            return null; // Adjacent venues would have to share the only theme
+        }
+
+        // bestTheme[i] and secondTheme[i] are the two cheapest themes for venues 0..i
+        int[] bestTheme = new int[n];
+        int[] secondTheme = new int[n];
+
+        int prevBest = 0, prevSecond = 0, prevBestTheme = -1;
+
+        for (int i = 0; i < n; i++) {
+            int best = Integer.MAX_VALUE, second = Integer.MAX_VALUE;
+            int bestIdx = -1, secondIdx = -1;
+
+            for (int j = 0; j < k; j++) {
+                // Cheapest previous row that does not reuse theme j
+                int previous = (i == 0) ? 0 : (j == prevBestTheme ? prevSecond : prevBest);
+                int cost = costs[i][j] + previous;
+
+                if (cost < best) {
+                    second = best;
+                    secondIdx = bestIdx;
+                    best = cost;
+                    bestIdx = j;
+                } else if (cost < second) {
+                    second = cost;
+                    secondIdx = j;
+                }
+            }
+
+            bestTheme[i] = bestIdx;
+            secondTheme[i] = secondIdx;
+            prevBest = best;
+            prevSecond = second;
+            prevBestTheme = bestIdx;
+        }
+
+        // Walk back from the last venue: take the best theme of the previous row unless it clashes
+        int[] themes = new int[n];
+        themes[n - 1] = bestTheme[n - 1];
+        for (int i = n - 1; i > 0; i--) {
+            themes[i - 1] = (bestTheme[i - 1] != themes[i]) ? bestTheme[i - 1] : secondTheme[i - 1];
+        }
+
+        return new DecorationPlan(prevBest, themes);
+    }
+
+    // Streaming version of the rolling-row solver: cost rows are pushed one at a time and only
+    // the best / second best totals of the previous row are kept, so memory does not depend on n.
+    public static class StreamingMinCost {
+        private final int k;
+        private long venues;
+        private long best, second;
+        private int bestTheme = -1;
+
+        public StreamingMinCost(int k) {
+            if (k <= 0) {
+                throw new IllegalArgumentException("Number of themes must be positive");
+            }
+            this.k = k;
+        }
+
+        public void addRow(int[] row) {
+            addRow(row, 0);
+        }
+
+        // Reads the k costs of one venue starting at offset, so callers can reuse a single buffer
+        public void addRow(int[] row, int offset) {
+            if (row.length - offset < k) {
+                throw new IllegalArgumentException("Expected " + k + " costs per venue");
+            }
+            long newBest = Long.MAX_VALUE, newSecond = Long.MAX_VALUE;
+            int newBestTheme = -1;
+
+            for (int j = 0; j < k; j++) {
+                long previous = (venues == 0) ? 0 : (j == bestTheme ? second : best);
+                if (previous == Long.MAX_VALUE) {
+                    continue; // No valid arrangement ends here
+                }
+                long cost = previous + row[offset + j];
+                if (cost < newBest) {
+                    newSecond = newBest;
+                    newBest = cost;
+                    newBestTheme = j;
+                } else if (cost < newSecond) {
+                    newSecond = cost;
+                }
+            }
+
+            best = newBest;
+            second = newSecond;
+            bestTheme = newBestTheme;
+            venues++;
+        }
+
+        // Minimum cost of the venues seen so far, -1 if they cannot be decorated
+        public long getMinCost() {
+            if (venues == 0) {
+                return 0;
+            }
+            return best == Long.MAX_VALUE ? -1 : best;
+        }
+
+        public long getVenueCount() {
+            return venues;
+        }
+
+        // Saves the running state so a long run can be resumed with restore(). The state is written to
+        // a temporary file and atomically moved over the old checkpoint, so a crash mid-write keeps it.
+        public void checkpoint(Path file) throws IOException {
+            Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(partial))) {
+                out.writeInt(k);
+                out.writeLong(venues);
+                out.writeLong(best);
+                out.writeLong(second);
+                out.writeInt(bestTheme);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        public static StreamingMinCost restore(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+                StreamingMinCost state = new StreamingMinCost(in.readInt());
+                state.venues = in.readLong();
+                state.best = in.readLong();
+                state.second = in.readLong();
+                state.bestTheme = in.readInt();
+                return state;
+            }
+        }
+    }
+
+    // Minimum cost over rows supplied by an iterator, holding one row at a time
+    public static long minCost(Iterator<int[]> rows, int k) {
+        StreamingMinCost solver = new StreamingMinCost(k);
+        while (rows.hasNext()) {
+            solver.addRow(rows.next());
+        }
+        return solver.getMinCost();
+    }
+
+    // Minimum cost of a binary cost file: a big-endian int k followed by n rows of k big-endian ints.
+    // The file is memory-mapped in windows so matrices larger than 2 GB can be processed.
+    public static long minCostFromFile(Path file) throws IOException {
+        return minCostFromFile(file, null, 0);
+    }
+
+    // Same as minCostFromFile, writing a checkpoint every checkpointEvery venues (0 disables it)
+    public static long minCostFromFile(Path file, Path checkpoint, long checkpointEvery) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return scanCostFile(channel, new StreamingMinCost(readThemeCount(channel)), checkpoint, checkpointEvery);
+        }
+    }
+
+    // Continues an interrupted minCostFromFile run from its checkpoint (or starts fresh if there is
+    // none yet), skipping the venues the checkpoint already covers
+    public static long resumeFromFile(Path file, Path checkpoint, long checkpointEvery) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int k = readThemeCount(channel);
+            StreamingMinCost solver = Files.exists(checkpoint)
+                    ? StreamingMinCost.restore(checkpoint)
+                    : new StreamingMinCost(k);
+            if (solver.k != k) {
+                throw new IOException("Checkpoint has " + solver.k + " themes, cost file has " + k);
+            }
+            return scanCostFile(channel, solver, checkpoint, checkpointEvery);
+        }
+    }
+
+    private static int readThemeCount(FileChannel channel) throws IOException {
+        if (channel.size() < Integer.BYTES) {
+            throw new IOException("Missing cost matrix header");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, Integer.BYTES).getInt();
+    }
+
+    // Feeds the rows after the ones the solver has already seen, one mapped window at a time
+    private static long scanCostFile(FileChannel channel, StreamingMinCost solver, Path checkpoint,
+                                     long checkpointEvery) throws IOException {
+        int k = solver.k;
+        long rowBytes = (long) k * Integer.BYTES;
+        long dataBytes = channel.size() - Integer.BYTES;
+        if (dataBytes % rowBytes != 0) {
+            throw new IOException("Cost file does not contain whole rows");
+        }
+        long position = Integer.BYTES + solver.getVenueCount() * rowBytes;
+        if (position > channel.size()) {
+            throw new IOException("Checkpoint is past the end of the cost file");
+        }
+
+        // Map whole rows only, at most ~256 MB per window
+        long rowsPerWindow = Math.max(1, (256L << 20) / rowBytes);
+        int[] row = new int[k];
+
+        while (position < channel.size()) {
+            long windowBytes = Math.min(rowsPerWindow * rowBytes, channel.size() - position);
+            IntBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowBytes).asIntBuffer();
+            while (window.hasRemaining()) {
+                window.get(row);
+                solver.addRow(row);
+                if (checkpoint != null && checkpointEvery > 0 && solver.getVenueCount() % checkpointEvery == 0) {
+                    solver.checkpoint(checkpoint);
+                }
+            }
+            position += windowBytes;
+        }
+        return solver.getMinCost();
+    }
+
     public static void main(String[] args) {
         int[][] costs = {{1, 3, 2}, {4, 6, 8}, {3, 5, 5}};
         int result = minCost(costs);
         System.out.println(result);  // Output: 10
+
+        DecorationPlan plan = minCostWithPlan(costs);
+        System.out.println(plan.getTotalCost() + " " + Arrays.toString(plan.getThemes()));  // Output: 10 [0, 1, 0]
+
+        System.out.println(minCost(Arrays.asList(costs).iterator(), 3));  // Output: 10
     }
 }
@@ -27,6 +27,9 @@
 // assigning them to engines is 4 units. 
 // Note: The splitting process occurs in parallel, and the goal is to minimize the total time required to build all the 
 // engines using the available engineers while considering the time cost of splitting.
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
 public class QA1b {
 
  
@@ -72,12 +75,46 @@ public class QA1b {
         return max; //return max time
     }
 
+    // O(n log n) solver independent of input order. Working backwards, the two fastest builds
+    // are always the ones that share a split: they are merged into one build taking
+    // max(a, b) + splitCost, until only the build started by the first engineer remains.
+    public static int minTimeWithHeap(int[] engines, int splitCost) {
+        if (engines.length == 0) {
+            return 0;
+        }
+
+        PriorityQueue<Integer> minHeap = new PriorityQueue<>(engines.length);
+        for (int engine : engines) {
+            minHeap.offer(engine);
+        }
+
+        while (minHeap.size() > 1) {
+            minHeap.poll(); // The faster build finishes no later than the slower one
+            int slower = minHeap.poll();
+            minHeap.offer(slower + splitCost);
+        }
+        return minHeap.peek();
+    }
+
+    // Evaluates many (engines, splitCost) scenarios in parallel across the available cores
+    public static int[] minTimeBatch(int[][] engineSets, int[] splitCosts) {
+        if (engineSets.length != splitCosts.length) {
+            throw new IllegalArgumentException("Each engine list needs its own split cost");
+        }
+        int[] results = new int[engineSets.length];
+        IntStream.range(0, engineSets.length)
+                .parallel()
+                .forEach(i -> results[i] = minTimeWithHeap(engineSets[i], splitCosts[i]));
+        return results;
+    }
+
     public static void main(String[] args) {
         //input 
         int[] engines = {1, 2, 3};
         int splitCost = 1;
         //min time printed and called
         System.out.println("the minimum time to build engine :" + " " + minTimeToBuildEngines(engines, splitCost)); // Output: 4
+        System.out.println("the minimum time using the heap :" + " " + minTimeWithHeap(engines, splitCost)); // Output: 4
     }
 
 
@@ -15,35 +15,208 @@
 // After these 3 moves, the number of dresses in each sewing machine is equalized to 2. Therefore, the minimum number of moves required to equalize the number of dresses is 3.
 
 // [5 Marks]
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
 public class QA2a {
+    // Machines handled by one leaf task of the parallel scan
+    static final int CHUNK_SIZE = 1 << 16;
+
     public static int minMovesToEqualizeDresses(int[] sewingMachines) {
-        int totalDresses = 0;
-        int numMachines = sewingMachines.length;
+        return minMovesInRange(sewingMachines, 0, sewingMachines.length);
+    }
+
+    // Parallel version of minMovesToEqualizeDresses for very long production lines.
+    // Everything is summed in longs, and the running balance is computed with a two-pass scan:
+    // pass 1 sums every chunk, the chunk offsets are prefix-summed, and pass 2 rescans each chunk
+    // starting from its offset to find the largest absolute balance.
+    // Returns the same value as the sequential method whenever that one does not overflow.
+    public static long minMovesParallel(int[] sewingMachines) {
+        return scan(sewingMachines)[0];
+    }
+
+    // Like minMovesParallel, but also applies the per-machine bound max(count - target):
+    // a machine can hand out at most one dress per move, so it never needs fewer moves than its excess.
+    public static long minMovesWithMachineBound(int[] sewingMachines) {
+        long[] result = scan(sewingMachines);
+        return result[0] < 0 ? -1 : Math.max(result[0], result[1]);
+    }
 
-        for (int dresses : sewingMachines) {
-            totalDresses += dresses;
+    // Returns {max |balance|, max(count - target)}, or {-1, -1} if the dresses cannot be equalized
+    private static long[] scan(int[] sewingMachines) {
+        int numMachines = sewingMachines.length;
+        if (numMachines == 0) {
+            return new long[]{-1, -1}; // An empty line cannot be equalized, as in the sequential method
         }
+        int chunks = (numMachines + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        // Pass 1: total dresses of each chunk
+        long[] chunkSums = new long[chunks];
+        pool.invoke(new ChunkTask(0, chunks, chunk -> {
+            long sum = 0;
+            for (int i = chunkStart(chunk); i < chunkEnd(chunk, numMachines); i++) {
+                sum += sewingMachines[i];
+            }
+            chunkSums[chunk] = sum;
+        }));
 
+        long totalDresses = 0;
+        for (long sum : chunkSums) {
+            totalDresses += sum;
+        }
         if (totalDresses % numMachines != 0) {
+            return new long[]{-1, -1}; // Cannot equalize dresses
+        }
+        long targetDresses = totalDresses / numMachines;
+
+        // Balance carried into each chunk from all the chunks before it
+        long[] offsets = new long[chunks];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            long length = chunkEnd(chunk - 1, numMachines) - chunkStart(chunk - 1);
+            offsets[chunk] = offsets[chunk - 1] + chunkSums[chunk - 1] - length * targetDresses;
+        }
+
+        // Pass 2: offset-adjusted running balance inside every chunk
+        long[] chunkMoves = new long[chunks];
+        long[] chunkExcess = new long[chunks];
+        pool.invoke(new ChunkTask(0, chunks, chunk -> {
+            long balance = offsets[chunk];
+            long moves = 0;
+            long excess = Long.MIN_VALUE;
+            for (int i = chunkStart(chunk); i < chunkEnd(chunk, numMachines); i++) {
+                long diff = sewingMachines[i] - targetDresses;
+                balance += diff;
+                moves = Math.max(moves, Math.abs(balance));
+                excess = Math.max(excess, diff);
+            }
+            chunkMoves[chunk] = moves;
+            chunkExcess[chunk] = excess;
+        }));
+
+        long moves = 0;
+        long excess = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            moves = Math.max(moves, chunkMoves[chunk]);
+            excess = Math.max(excess, chunkExcess[chunk]);
+        }
+        return new long[]{moves, excess};
+    }
+
+    private static int chunkStart(int chunk) {
+        return chunk * CHUNK_SIZE;
+    }
+
+    private static int chunkEnd(int chunk, int numMachines) {
+        return (int) Math.min((long) (chunk + 1) * CHUNK_SIZE, numMachines);
+    }
+
+    // Splits a range of chunk indices in half until a single chunk is left, then runs the action on it
+    static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final IntConsumer action;
+
+        ChunkTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                action.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(from, mid, action), new ChunkTask(mid, to, action));
+        }
+    }
+
+    // Scores many short production lines at once. Line i is dresses[offsets[i]] .. dresses[offsets[i + 1] - 1]
+    // (CSR layout), so no per-line array is allocated; lines are processed in parallel into one result array.
+    // Each entry matches minMovesToEqualizeDresses for that line (-1 if it cannot be equalized).
+    public static int[] minMovesBatch(int[] dresses, int[] offsets) {
+        int lines = offsets.length - 1;
+        int[] results = new int[Math.max(lines, 0)];
+        IntStream.range(0, results.length)
+                .parallel()
+                .forEach(line -> results[line] = minMovesInRange(dresses, offsets[line], offsets[line + 1]));
+        return results;
+    }
+
+    // Moves needed for the line dresses[from .. to); an empty line cannot be equalized (-1)
+    private static int minMovesInRange(int[] dresses, int from, int to) {
+        int numMachines = to - from;
+        int totalDresses = 0;
+        for (int i = from; i < to; i++) {
+            totalDresses += dresses[i];
+        }
+        if (numMachines == 0 || totalDresses % numMachines != 0) {
             return -1; // Cannot equalize dresses
         }
 
         int targetDresses = totalDresses / numMachines;
         int moves = 0;
         int balance = 0;
-
-        for (int dresses : sewingMachines) {
-            balance += dresses - targetDresses;
+        for (int i = from; i < to; i++) {
+            balance += dresses[i] - targetDresses;
             moves = Math.max(moves, Math.abs(balance));
         }
-
         return moves;
     }
 
+    // Rough throughput comparison of per-line calls against the batch entry point
+    static void benchmarkBatch(int lines, int machinesPerLine) {
+        Random random = new Random(42);
+        int[] dresses = new int[lines * machinesPerLine];
+        int[] offsets = new int[lines + 1];
+        for (int i = 0; i < dresses.length; i++) {
+            dresses[i] = random.nextInt(10);
+        }
+        for (int line = 0; line <= lines; line++) {
+            offsets[line] = line * machinesPerLine;
+        }
+
+        for (int round = 0; round < 5; round++) { // First rounds warm up the JIT
+            long start = System.nanoTime();
+            long checksum = 0;
+            for (int line = 0; line < lines; line++) {
+                int[] machines = Arrays.copyOfRange(dresses, offsets[line], offsets[line + 1]);
+                checksum += minMovesToEqualizeDresses(machines);
+            }
+            long perCall = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int moves : minMovesBatch(dresses, offsets)) {
+                checksum -= moves;
+            }
+            long batch = System.nanoTime() - start;
+
+            System.out.printf("per-call: %.1f M lines/s, batch: %.1f M lines/s (checksum %d)%n",
+                    lines * 1e3 / perCall, lines * 1e3 / batch, checksum);
+        }
+    }
+
     public static void main(String[] args) {
         int[] inputDresses = {1, 0, 5};
         int outputMoves = minMovesToEqualizeDresses(inputDresses);
         System.out.println(outputMoves);
+        System.out.println(minMovesParallel(inputDresses));
+
+        int[] batchDresses = {1, 0, 5, 0, 3, 0, 2, 2};
+        int[] lineOffsets = {0, 3, 6, 8};
+        System.out.println(Arrays.toString(minMovesBatch(batchDresses, lineOffsets))); // Output: [3, 1, 0]
+
+        if (args.length > 0 && args[0].equals("bench")) {
+            benchmarkBatch(1_000_000, 16);
+        }
     }
    
 }
@@ -17,7 +17,14 @@
 // Given the intervals [(0, 2), (1, 3), (2, 4)], we can observe that during these intervals, person 0 shares the secret with 
 // every other individual at least once. 
 // Hence, after all the secret-sharing intervals, individuals 0, 1, 2, 3, and 4 will eventually know the secret. 
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 public class QA2b{
@@ -47,6 +54,160 @@ public class QA2b{
         return result;
     }
 
+    // Same set of individuals as findIndividuals, returned as sorted, disjoint [from, to] ranges.
+    // Intervals are packed as (start << 32 | end) into a long[] and sorted as primitives, then merged
+    // in one pass, so the cost is O(m log m) no matter how wide the intervals are.
+    public static int[][] findIndividualRanges(int n, int[][] intervals, int firstPerson) {
+        long[] packed = new long[intervals.length + 1];
+        int count = 0;
+        for (int[] interval : intervals) {
+            int start = Math.max(interval[0], 0);
+            int end = Math.min(interval[1], n - 1);
+            if (start <= end) {
+                packed[count++] = ((long) start << 32) | end;
+            }
+        }
+        packed[count++] = ((long) firstPerson << 32) | firstPerson; // First person initially knows the secret
+        Arrays.sort(packed, 0, count);
+
+        // Merge overlapping or touching intervals in place
+        int merged = 0;
+        int from = (int) (packed[0] >>> 32), to = (int) packed[0];
+        for (int i = 1; i < count; i++) {
+            int start = (int) (packed[i] >>> 32), end = (int) packed[i];
+            if (start <= to + 1) {
+                to = Math.max(to, end);
+            } else {
+                packed[merged++] = ((long) from << 32) | to;
+                from = start;
+                to = end;
+            }
+        }
+        packed[merged++] = ((long) from << 32) | to;
+
+        int[][] ranges = new int[merged][];
+        for (int i = 0; i < merged; i++) {
+            ranges[i] = new int[]{(int) (packed[i] >>> 32), (int) packed[i]};
+        }
+        return ranges;
+    }
+
+    // Same set of individuals as findIndividuals, as a BitSet built from the merged ranges
+    public static BitSet findIndividualsBitSet(int n, int[][] intervals, int firstPerson) {
+        BitSet knowsSecret = new BitSet(n);
+        for (int[] range : findIndividualRanges(n, intervals, firstPerson)) {
+            knowsSecret.set(range[0], range[1] + 1);
+        }
+        return knowsSecret;
+    }
+
+    // Time-ordered version: meeting i is between personA[i] and personB[i] at times[i] (non-negative).
+    // Meetings at the same time are processed as one group with a union-find; anyone in the group who
+    // is not connected to person 0's set afterwards is reset, so the secret never travels back in time.
+    // Sorting the meetings dominates, giving O(m log m + m * alpha(n)) overall.
+    public static BitSet findSecretHolders(int n, int[] personA, int[] personB, int[] times, int firstPerson) {
+        int m = times.length;
+        if (personA.length != m || personB.length != m) {
+            throw new IllegalArgumentException("Meeting arrays must have the same length");
+        }
+
+        // Sort meeting indices by time without boxing
+        long[] order = new long[m];
+        for (int i = 0; i < m; i++) {
+            order[i] = ((long) times[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        parent[firstPerson] = 0; // Person 0 and the first person share the secret at time 0
+
+        int groupStart = 0;
+        while (groupStart < m) {
+            int time = (int) (order[groupStart] >>> 32);
+            int groupEnd = groupStart;
+            while (groupEnd < m && (int) (order[groupEnd] >>> 32) == time) {
+                int meeting = (int) order[groupEnd];
+                union(parent, personA[meeting], personB[meeting]);
+                groupEnd++;
+            }
+
+            // Undo the unions of everyone who did not end up with the secret in this time group
+            int secretRoot = find(parent, 0);
+            for (int i = groupStart; i < groupEnd; i++) {
+                int meeting = (int) order[i];
+                if (find(parent, personA[meeting]) != secretRoot) {
+                    parent[personA[meeting]] = personA[meeting];
+                }
+                if (find(parent, personB[meeting]) != secretRoot) {
+                    parent[personB[meeting]] = personB[meeting];
+                }
+            }
+            groupStart = groupEnd;
+        }
+
+        BitSet knowsSecret = new BitSet(n);
+        int secretRoot = find(parent, 0);
+        for (int i = 0; i < n; i++) {
+            if (find(parent, i) == secretRoot) {
+                knowsSecret.set(i);
+            }
+        }
+        return knowsSecret;
+    }
+
+    // Reads meetings from a binary file of big-endian int triples (personA, personB, time)
+    public static BitSet findSecretHoldersFromFile(int n, Path file, int firstPerson) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes % (3L * Integer.BYTES) != 0 || bytes / (3L * Integer.BYTES) > Integer.MAX_VALUE) {
+                throw new IOException("Meeting file must contain whole (personA, personB, time) triples");
+            }
+            int m = (int) (bytes / (3L * Integer.BYTES));
+            int[] personA = new int[m], personB = new int[m], times = new int[m];
+
+            // Map at most ~1 GB at a time
+            int meetingsPerWindow = (1 << 30) / (3 * Integer.BYTES);
+            for (int first = 0; first < m; first += meetingsPerWindow) {
+                int count = Math.min(meetingsPerWindow, m - first);
+                IntBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                        (long) first * 3 * Integer.BYTES, (long) count * 3 * Integer.BYTES).asIntBuffer();
+                for (int i = first; i < first + count; i++) {
+                    personA[i] = window.get();
+                    personB[i] = window.get();
+                    times[i] = window.get();
+                }
+            }
+            return findSecretHolders(n, personA, personB, times, firstPerson);
+        }
+    }
+
+    // Iterative find with path halving
+    private static int find(int[] parent, int person) {
+        while (parent[person] != person) {
+            parent[person] = parent[parent[person]];
+            person = parent[person];
+        }
+        return person;
+    }
+
+    // Keeps person 0's root as the root of any set it joins
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA == rootB) {
+            return;
+        }
+        int secretRoot = find(parent, 0);
+        if (rootB == secretRoot) {
+            parent[rootA] = rootB;
+        } else {
+            parent[rootB] = rootA;
+        }
+    }
+
     public static void main(String[] args) {
         int n = 5;
         int[][] intervals = {{0, 2}, {1, 3}, {2, 4}};
@@ -54,5 +215,11 @@ public class QA2b{
         
         List<Integer> individuals = findIndividuals(n, intervals, firstPerson);
         System.out.println(individuals); // Output: [0, 1, 2, 3, 4]
+        System.out.println(Arrays.deepToString(findIndividualRanges(n, intervals, firstPerson))); // Output: [[0, 4]]
+        System.out.println(findIndividualsBitSet(n, intervals, firstPerson)); // Output: {0, 1, 2, 3, 4}
+
+        // Meetings (1, 2) at time 5, (2, 3) at time 8 and (1, 5) at time 10, with person 1 told first
+        int[] personA = {1, 2, 1}, personB = {2, 3, 5}, times = {5, 8, 10};
+        System.out.println(findSecretHolders(6, personA, personB, times, 1)); // Output: {0, 1, 2, 3, 5}
     }
 }
@@ -15,8 +15,15 @@
 // scoreTracker.addScore(81.2);    // Stream: [85.5, 92.3, 77.8, 90.1, 81.2] 
 // scoreTracker.addScore(88.7);    // Stream: [85.5, 92.3, 77.8, 90.1, 81.2, 88.7] 
 // double median2 = scoreTracker.getMedianScore(); // Output: 86.95 (average of 88.7 and 85.5) 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleConsumer;
 
 public class QA3a {
     private PriorityQueue<Double> maxHeap;  // Holds the lower half of scores
@@ -56,7 +63,731 @@ public class QA3a {
         }
     }
 
-    public static void main(String[] args) {
+    // Growable binary min-heap over a primitive double[]; no boxing on offer or poll.
+    // A max-heap is obtained by storing negated values (negation is exact for doubles).
+    static class DoubleHeap {
+        private double[] heap;
+        private int size;
+
+        DoubleHeap(int initialCapacity) {
+            heap = new double[Math.max(initialCapacity, 2)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peek() {
+            return heap[0];
+        }
+
+        void offer(double value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+            // Sift up
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        double poll() {
+            double top = heap[0];
+            double last = heap[--size];
+            // Sift down
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    // Same behaviour as QA3a, backed by primitive heaps so addScore and getMedianScore
+    // do not allocate once the arrays have grown to the stream size
+    public static class PrimitiveScoreTracker {
+        private final DoubleHeap lowerHalf;  // Negated lower half of scores (max-heap)
+        private final DoubleHeap upperHalf;  // Higher half of scores (min-heap)
+
+        public PrimitiveScoreTracker() {
+            this(16);
+        }
+
+        public PrimitiveScoreTracker(int expectedScores) {
+            lowerHalf = new DoubleHeap(expectedScores / 2 + 1);
+            upperHalf = new DoubleHeap(expectedScores / 2 + 1);
+        }
+
+        public void addScore(double score) {
+            if (lowerHalf.isEmpty() || score <= -lowerHalf.peek()) {
+                lowerHalf.offer(-score);
+            } else {
+                upperHalf.offer(score);
+            }
+
+            // Balance the heaps
+            if (lowerHalf.size() > upperHalf.size() + 1) {
+                upperHalf.offer(-lowerHalf.poll());
+            } else if (upperHalf.size() > lowerHalf.size()) {
+                lowerHalf.offer(-upperHalf.poll());
+            }
+        }
+
+        public double getMedianScore() {
+            if (lowerHalf.isEmpty()) {
+                throw new IllegalStateException("No scores available");
+            }
+
+            if (lowerHalf.size() == upperHalf.size()) {
+                // Even number of scores, average the two middle scores
+                return (-lowerHalf.peek() + upperHalf.peek()) / 2.0;
+            } else {
+                // Odd number of scores, the top of the lower half is the median
+                return -lowerHalf.peek();
+            }
+        }
+
+        public int size() {
+            return lowerHalf.size() + upperHalf.size();
+        }
+    }
+
+    // Median of the most recent scores only. Scores live in a ring buffer of fixed capacity and each
+    // half of the window is an indexed heap of ring slots, so the oldest score can be removed from
+    // the middle of its heap in O(log N) and memory never grows past the capacity.
+    public static class WindowedScoreTracker {
+        private final double[] scores;     // Ring buffer of the window, oldest at head
+        private final long[] timestamps;   // Arrival time of each slot, for time-based windows
+        private final boolean[] inLower;   // Which half each slot currently belongs to
+        private final int[] position;      // Index of each slot inside its heap
+        private final SlotHeap lowerHalf;  // Max-heap of slots
+        private final SlotHeap upperHalf;  // Min-heap of slots
+        private final long windowLength;   // Maximum age of a score, Long.MAX_VALUE for count-only windows
+        private int head, size;
+
+        // Keeps the last windowSize scores
+        public WindowedScoreTracker(int windowSize) {
+            this(windowSize, Long.MAX_VALUE);
+        }
+
+        // Keeps scores younger than windowLength (same unit as the timestamps), at most maxScores of them
+        public WindowedScoreTracker(int maxScores, long windowLength) {
+            if (maxScores <= 0) {
+                throw new IllegalArgumentException("Window must hold at least one score");
+            }
+            scores = new double[maxScores];
+            timestamps = new long[maxScores];
+            inLower = new boolean[maxScores];
+            position = new int[maxScores];
+            lowerHalf = new SlotHeap(maxScores, true);
+            upperHalf = new SlotHeap(maxScores, false);
+            this.windowLength = windowLength;
+        }
+
+        public void addScore(double score) {
+            addScore(score, 0);
+        }
+
+        public void addScore(double score, long timestamp) {
+            evictOlderThan(timestamp);
+            if (size == scores.length) {
+                evictOldest();
+            }
+
+            int slot = (head + size++) % scores.length;
+            scores[slot] = score;
+            timestamps[slot] = timestamp;
+            if (lowerHalf.isEmpty() || score <= scores[lowerHalf.peek()]) {
+                inLower[slot] = true;
+                lowerHalf.offer(slot);
+            } else {
+                inLower[slot] = false;
+                upperHalf.offer(slot);
+            }
+            rebalance();
+        }
+
+        // Drops every score whose timestamp is at or before now - windowLength
+        public void evictOlderThan(long now) {
+            if (windowLength == Long.MAX_VALUE) {
+                return;
+            }
+            while (size > 0 && now - timestamps[head] >= windowLength) {
+                evictOldest();
+            }
+        }
+
+        public double getMedianScore() {
+            if (size == 0) {
+                throw new IllegalStateException("No scores available");
+            }
+
+            if (lowerHalf.size() == upperHalf.size()) {
+                // Even number of scores, average the two middle scores
+                return (scores[lowerHalf.peek()] + scores[upperHalf.peek()]) / 2.0;
+            } else {
+                // Odd number of scores, the top of the lower half is the median
+                return scores[lowerHalf.peek()];
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private void evictOldest() {
+            int slot = head;
+            if (inLower[slot]) {
+                lowerHalf.remove(slot);
+            } else {
+                upperHalf.remove(slot);
+            }
+            head = (head + 1) % scores.length;
+            size--;
+            rebalance();
+        }
+
+        private void rebalance() {
+            if (lowerHalf.size() > upperHalf.size() + 1) {
+                int slot = lowerHalf.poll();
+                inLower[slot] = false;
+                upperHalf.offer(slot);
+            } else if (upperHalf.size() > lowerHalf.size()) {
+                int slot = upperHalf.poll();
+                inLower[slot] = true;
+                lowerHalf.offer(slot);
+            }
+        }
+
+        // Binary heap of ring slots ordered by their score, tracking each slot's position for removal
+        private class SlotHeap {
+            private final int[] heap;
+            private final boolean max;
+            private int count;
+
+            SlotHeap(int capacity, boolean max) {
+                heap = new int[capacity];
+                this.max = max;
+            }
+
+            int size() {
+                return count;
+            }
+
+            boolean isEmpty() {
+                return count == 0;
+            }
+
+            int peek() {
+                return heap[0];
+            }
+
+            void offer(int slot) {
+                place(count++, slot);
+                siftUp(position[slot]);
+            }
+
+            int poll() {
+                int top = heap[0];
+                remove(top);
+                return top;
+            }
+
+            void remove(int slot) {
+                int i = position[slot];
+                int last = heap[--count];
+                if (i == count) {
+                    return;
+                }
+                place(i, last);
+                siftUp(i);
+                siftDown(position[last]);
+            }
+
+            // True if slot a belongs above slot b
+            private boolean before(int a, int b) {
+                return max ? scores[a] > scores[b] : scores[a] < scores[b];
+            }
+
+            private void place(int i, int slot) {
+                heap[i] = slot;
+                position[slot] = i;
+            }
+
+            private void siftUp(int i) {
+                int slot = heap[i];
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (!before(slot, heap[parent])) {
+                        break;
+                    }
+                    place(i, heap[parent]);
+                    i = parent;
+                }
+                place(i, slot);
+            }
+
+            private void siftDown(int i) {
+                int slot = heap[i];
+                int half = count >>> 1;
+                while (i < half) {
+                    int child = 2 * i + 1;
+                    if (child + 1 < count && before(heap[child + 1], heap[child])) {
+                        child++;
+                    }
+                    if (!before(heap[child], slot)) {
+                        break;
+                    }
+                    place(i, heap[child]);
+                    i = child;
+                }
+                place(i, slot);
+            }
+        }
+    }
+
+    // Thread-safe tracker for many producers. Each producer appends to one of several striped buffers;
+    // a full buffer is merged into primitive heaps as a batch and the new median is published.
+    // Staleness is bounded in time as well: the first score is published at once, and an addScore
+    // that finds the last publication older than maxStalenessNanos merges every stripe it can lock
+    // without waiting. Each merge publishes one immutable snapshot through a volatile reference, so
+    // getMedianScore and publishedSize never block writers, and a snapshot() read gives a median and
+    // count from the same merge.
+    public static class ConcurrentScoreTracker {
+        private final Stripe[] stripes;
+        private final ReentrantLock mergeLock = new ReentrantLock();
+        private final PrimitiveScoreTracker tracker = new PrimitiveScoreTracker();
+        private final long maxStalenessNanos;
+        private volatile Snapshot published = new Snapshot(Double.NaN, 0, System.nanoTime());
+
+        public ConcurrentScoreTracker() {
+            this(Runtime.getRuntime().availableProcessors() * 2, 256, 10_000_000L);
+        }
+
+        public ConcurrentScoreTracker(int stripeCount, int batchSize, long maxStalenessNanos) {
+            // Round up to a power of two so a thread picks its stripe with a mask
+            int count = Integer.highestOneBit(Math.max(stripeCount, 1) * 2 - 1);
+            stripes = new Stripe[count];
+            for (int i = 0; i < count; i++) {
+                stripes[i] = new Stripe(batchSize);
+            }
+            this.maxStalenessNanos = maxStalenessNanos;
+        }
+
+        public void addScore(double score) {
+            Stripe stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+            boolean stale;
+            stripe.lock.lock();
+            try {
+                stripe.buffer[stripe.count++] = score;
+                Snapshot last = published;
+                stale = last.count == 0 || System.nanoTime() - last.time > maxStalenessNanos;
+                if (stale || stripe.count == stripe.buffer.length) {
+                    merge(stripe);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+            if (stale) {
+                mergeIdleStripes();
+            }
+        }
+
+        // Median of the scores published so far. This lags addScore by at most one batch per stripe,
+        // and by no more than maxStalenessNanos while scores keep arriving; call flush() first for
+        // the exact median. Throws if no score has been published yet.
+        public double getMedianScore() {
+            double median = published.median;
+            if (Double.isNaN(median)) {
+                throw new IllegalStateException("No scores available");
+            }
+            return median;
+        }
+
+        // Last published median, score count and publication time, all from the same merge
+        public Snapshot snapshot() {
+            return published;
+        }
+
+        // Merges the stripes whose lock is free right now; busy stripes are merged by their owner
+        private void mergeIdleStripes() {
+            for (Stripe stripe : stripes) {
+                if (stripe.lock.tryLock()) {
+                    try {
+                        merge(stripe);
+                    } finally {
+                        stripe.lock.unlock();
+                    }
+                }
+            }
+        }
+
+        // Number of scores included in the published median
+        public int publishedSize() {
+            return published.count;
+        }
+
+        // Merges every buffered score and publishes the exact median
+        public void flush() {
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    merge(stripe);
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+        }
+
+        // Caller holds the stripe's lock
+        private void merge(Stripe stripe) {
+            if (stripe.count == 0) {
+                return;
+            }
+            mergeLock.lock();
+            try {
+                for (int i = 0; i < stripe.count; i++) {
+                    tracker.addScore(stripe.buffer[i]);
+                }
+                published = new Snapshot(tracker.getMedianScore(), tracker.size(), System.nanoTime());
+            } finally {
+                mergeLock.unlock();
+            }
+            stripe.count = 0;
+        }
+
+        // Immutable result of one merge; time is System.nanoTime() at publication
+        public static final class Snapshot {
+            public final double median;
+            public final int count;
+            public final long time;
+
+            Snapshot(double median, int count, long time) {
+                this.median = median;
+                this.count = count;
+                this.time = time;
+            }
+        }
+
+        private static class Stripe {
+            final ReentrantLock lock = new ReentrantLock();
+            final double[] buffer;
+            int count;
+
+            Stripe(int batchSize) {
+                buffer = new double[Math.max(batchSize, 1)];
+            }
+        }
+    }
+
+    // Approximate tracker with a fixed memory budget, based on a KLL quantile sketch.
+    // Level h holds items of weight 2^h; when the sketch is over budget the lowest full level is
+    // sorted and every other item (random offset) is promoted, so the rank error of a quantile is
+    // about 1/k of the stream size on average and stays below 3/k (checkRankError in main). Sketches
+    // from different nodes can be merged and shipped in a compact byte format.
+    public static class QuantileSketchTracker {
+        private static final int MIN_LEVEL_CAPACITY = 8;
+
+        private final int k;
+        private final SplittableRandom random;
+        private double[][] levels = new double[1][];
+        private int[] levelSizes = new int[1];
+        private long count;
+
+        public QuantileSketchTracker() {
+            this(200);
+        }
+
+        // Larger k means smaller error and more memory (about 3k doubles). Each sketch gets its own
+        // compaction coin flips, so sketches built on different nodes do not err in the same direction.
+        public QuantileSketchTracker(int k) {
+            this(k, new SplittableRandom());
+        }
+
+        // Fixed seed, for reproducible runs
+        public QuantileSketchTracker(int k, long seed) {
+            this(k, new SplittableRandom(seed));
+        }
+
+        private QuantileSketchTracker(int k, SplittableRandom random) {
+            if (k < MIN_LEVEL_CAPACITY) {
+                throw new IllegalArgumentException("k must be at least " + MIN_LEVEL_CAPACITY);
+            }
+            this.k = k;
+            this.random = random;
+            levels[0] = new double[k];
+        }
+
+        public void addScore(double score) {
+            append(0, score);
+            count++;
+            compress();
+        }
+
+        public double getMedianScore() {
+            return getQuantile(0.5);
+        }
+
+        // Approximate q-quantile, e.g. 0.95 for p95
+        public double getQuantile(double q) {
+            if (count == 0) {
+                throw new IllegalStateException("No scores available");
+            }
+            if (q < 0 || q > 1) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1");
+            }
+
+            // Sort each level, then walk them in merged order accumulating weights
+            double[][] sorted = new double[levels.length][];
+            int[] next = new int[levels.length];
+            for (int h = 0; h < levels.length; h++) {
+                sorted[h] = Arrays.copyOf(levels[h], levelSizes[h]);
+                Arrays.sort(sorted[h]);
+            }
+
+            long totalWeight = 0;
+            for (int h = 0; h < levels.length; h++) {
+                totalWeight += (long) levelSizes[h] << h;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * totalWeight));
+            long seen = 0;
+            double value = Double.NaN;
+            while (seen < rank) {
+                int smallest = -1;
+                for (int h = 0; h < sorted.length; h++) {
+                    if (next[h] < sorted[h].length
+                            && (smallest < 0 || sorted[h][next[h]] < sorted[smallest][next[smallest]])) {
+                        smallest = h;
+                    }
+                }
+                value = sorted[smallest][next[smallest]++];
+                seen += 1L << smallest;
+            }
+            return value;
+        }
+
+        public long size() {
+            return count;
+        }
+
+        // Folds another sketch (same k) into this one
+        public void merge(QuantileSketchTracker other) {
+            if (other.k != k) {
+                throw new IllegalArgumentException("Sketches must use the same k");
+            }
+            // Snapshot first: merging a sketch into itself would otherwise read levels as they grow
+            double[][] otherLevels = other.levels.clone();
+            int[] otherSizes = other.levelSizes.clone();
+            long otherCount = other.count;
+            for (int h = 0; h < otherLevels.length; h++) {
+                for (int i = 0; i < otherSizes[h]; i++) {
+                    append(h, otherLevels[h][i]);
+                }
+            }
+            count += otherCount;
+            compress();
+        }
+
+        // Layout: k, count, level count, then for each level its size and its doubles
+        public byte[] toBytes() {
+            ByteBuffer buffer = ByteBuffer.allocate(4 + 8 + 4 + 4 * levels.length + 8 * retainedItems());
+            buffer.putInt(k).putLong(count).putInt(levels.length);
+            for (int h = 0; h < levels.length; h++) {
+                buffer.putInt(levelSizes[h]);
+                for (int i = 0; i < levelSizes[h]; i++) {
+                    buffer.putDouble(levels[h][i]);
+                }
+            }
+            return buffer.array();
+        }
+
+        public static QuantileSketchTracker fromBytes(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            QuantileSketchTracker sketch = new QuantileSketchTracker(buffer.getInt());
+            sketch.count = buffer.getLong();
+            int levelCount = buffer.getInt();
+            for (int h = 0; h < levelCount; h++) {
+                int size = buffer.getInt();
+                for (int i = 0; i < size; i++) {
+                    sketch.append(h, buffer.getDouble());
+                }
+            }
+            return sketch;
+        }
+
+        private int retainedItems() {
+            int retained = 0;
+            for (int size : levelSizes) {
+                retained += size;
+            }
+            return retained;
+        }
+
+        // Capacity shrinks by 2/3 per level below the top, as in KLL
+        private int capacity(int level) {
+            int depth = levels.length - 1 - level;
+            return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+        }
+
+        private void append(int level, double value) {
+            while (level >= levels.length) {
+                levels = Arrays.copyOf(levels, levels.length + 1);
+                levelSizes = Arrays.copyOf(levelSizes, levelSizes.length + 1);
+                levels[levels.length - 1] = new double[MIN_LEVEL_CAPACITY];
+            }
+            if (levelSizes[level] == levels[level].length) {
+                levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+            }
+            levels[level][levelSizes[level]++] = value;
+        }
+
+        private void compress() {
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int h = 0; h < levels.length; h++) {
+                    if (levelSizes[h] >= capacity(h)) {
+                        compact(h);
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Promotes half of a sorted level to the next one; an odd leftover item stays behind
+        private void compact(int level) {
+            double[] items = levels[level];
+            int size = levelSizes[level];
+            Arrays.sort(items, 0, size);
+
+            int leftover = size % 2;
+            int offset = random.nextInt(2);
+            for (int i = leftover + offset; i < size; i += 2) {
+                append(level + 1, items[i]);
+            }
+            levelSizes[level] = leftover; // The smallest item stays at index 0
+        }
+    }
+
+    // Throughput of an externally locked QA3a against ConcurrentScoreTracker at several thread counts
+    static void benchmarkContention(int scoresPerThread) throws InterruptedException {
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            QA3a locked = new QA3a();
+            long lockedTime = runProducers(threads, scoresPerThread, score -> {
+                synchronized (locked) {
+                    locked.addScore(score);
+                }
+            });
+
+            ConcurrentScoreTracker concurrent = new ConcurrentScoreTracker();
+            long concurrentTime = runProducers(threads, scoresPerThread, concurrent::addScore);
+            concurrent.flush();
+
+            long total = (long) threads * scoresPerThread;
+            System.out.printf("%2d threads: locked %.1f M scores/s, striped %.1f M scores/s (medians %.3f / %.3f)%n",
+                    threads, total * 1e3 / lockedTime, total * 1e3 / concurrentTime,
+                    locked.getMedianScore(), concurrent.getMedianScore());
+        }
+    }
+
+    private static long runProducers(int threads, int scoresPerThread, DoubleConsumer sink)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            new Thread(() -> {
+                Random random = new Random(seed);
+                try {
+                    start.await();
+                    for (int i = 0; i < scoresPerThread; i++) {
+                        sink.accept(random.nextDouble() * 100);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    // Rough comparison of the boxed and primitive trackers (run with "bench")
+    static void benchmarkTrackers(int scores) {
+        double[] stream = new Random(42).doubles(scores, 0, 100).toArray();
+        for (int round = 0; round < 5; round++) { // First rounds warm up the JIT
+            long start = System.nanoTime();
+            QA3a boxed = new QA3a();
+            double checksum = 0;
+            for (double score : stream) {
+                boxed.addScore(score);
+                checksum += boxed.getMedianScore();
+            }
+            long boxedTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            PrimitiveScoreTracker primitive = new PrimitiveScoreTracker();
+            for (double score : stream) {
+                primitive.addScore(score);
+                checksum -= primitive.getMedianScore();
+            }
+            long primitiveTime = System.nanoTime() - start;
+
+            System.out.printf("boxed: %.1f M scores/s, primitive: %.1f M scores/s (checksum %.1f)%n",
+                    scores * 1e3 / boxedTime, scores * 1e3 / primitiveTime, checksum);
+        }
+    }
+
+    // Compares p50, p95 and p99 of the sketch with the exact sorted stream and throws if a rank error
+    // is above 3/k. The rank error is how far q lies outside the range of ranks the value holds.
+    static void checkRankError(double[] sorted, QuantileSketchTracker sketch, String name) {
+        for (double q : new double[]{0.5, 0.95, 0.99}) {
+            double value = sketch.getQuantile(q);
+            int below = 0, atOrBelow = 0;
+            for (double score : sorted) {
+                if (score < value) below++;
+                if (score <= value) atOrBelow++;
+            }
+            double low = (double) below / sorted.length, high = (double) atOrBelow / sorted.length;
+            double error = q < low ? low - q : q > high ? q - high : 0;
+            System.out.printf("%s p%.0f: %.3f, rank error %.4f%n", name, q * 100, value, error);
+            if (error > 3.0 / sketch.k) {
+                throw new IllegalStateException(String.format("%s p%.0f rank error %.4f above 3/k", name, q * 100, error));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
         QA3a scoreTracker = new QA3a();
         scoreTracker.addScore(85.5);
         scoreTracker.addScore(92.3);
@@ -69,5 +800,46 @@ public class QA3a {
         scoreTracker.addScore(88.7);
         double median2 = scoreTracker.getMedianScore();
         System.out.println("Median 2: " + median2);  // Output: 87.1
+
+        PrimitiveScoreTracker primitiveTracker = new PrimitiveScoreTracker();
+        for (double score : new double[]{85.5, 92.3, 77.8, 90.1, 81.2, 88.7}) {
+            primitiveTracker.addScore(score);
+        }
+        System.out.println("Median 2 (primitive): " + primitiveTracker.getMedianScore());  // Output: 87.1
+
+        WindowedScoreTracker windowTracker = new WindowedScoreTracker(3);
+        for (double score : new double[]{85.5, 92.3, 77.8, 90.1, 81.2, 88.7}) {
+            windowTracker.addScore(score);
+        }
+        System.out.println("Median of last 3: " + windowTracker.getMedianScore());  // Output: 88.7
+
+        // One sketch over the whole stream and two fed from different "nodes", merged after a round
+        // trip through bytes; seeded, so the check below is reproducible
+        QA3a exact = new QA3a();
+        QuantileSketchTracker single = new QuantileSketchTracker(200, 1);
+        QuantileSketchTracker nodeA = new QuantileSketchTracker(200, 2);
+        QuantileSketchTracker nodeB = new QuantileSketchTracker(200, 3);
+        Random random = new Random(7);
+        double[] stream = new double[200_000];
+        for (int i = 0; i < stream.length; i++) {
+            double score = random.nextGaussian() * 10 + 70;
+            stream[i] = score;
+            exact.addScore(score);
+            single.addScore(score);
+            (i % 2 == 0 ? nodeA : nodeB).addScore(score);
+        }
+        nodeA.merge(QuantileSketchTracker.fromBytes(nodeB.toBytes()));
+        System.out.printf("Median exact %.3f, sketch %.3f, p95 %.3f, p99 %.3f, %d bytes%n",
+                exact.getMedianScore(), nodeA.getMedianScore(), nodeA.getQuantile(0.95),
+                nodeA.getQuantile(0.99), nodeA.toBytes().length);
+
+        Arrays.sort(stream);
+        checkRankError(stream, single, "single");
+        checkRankError(stream, nodeA, "merged");
+
+        if (args.length > 0 && args[0].equals("bench")) {
+            benchmarkTrackers(5_000_000);
+            benchmarkContention(200_000);
+        }
     }
 }
@@ -1,5 +1,11 @@
 //  Implement Kruskal algorithm and priority queue using minimum heap 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 public class QA3b {
 
@@ -33,10 +39,18 @@ public class QA3b {
         }
 
         int find(int vertex) {
-            if (parent[vertex] != vertex) {
-                parent[vertex] = find(parent[vertex]);
+            // Iterative, so long chains cannot overflow the stack
+            int root = vertex;
+            while (parent[root] != root) {
+                root = parent[root];
             }
-            return parent[vertex];
+            // Path compression: point every vertex on the path at the root
+            while (parent[vertex] != root) {
+                int next = parent[vertex];
+                parent[vertex] = root;
+                vertex = next;
+            }
+            return root;
         }
 
         void union(int x, int y) {
@@ -54,6 +68,128 @@ public class QA3b {
         }
     }
 
+    // Lock-free disjoint set that many threads can update at once. Parents live in an
+    // AtomicIntegerArray; find uses iterative path halving with CAS, and union links the root with
+    // the smaller index under the larger one (union by index), retrying if another thread moved it.
+    public static class ConcurrentDisjointSet {
+        private final AtomicIntegerArray parent;
+
+        public ConcurrentDisjointSet(int vertices) {
+            parent = new AtomicIntegerArray(vertices);
+            for (int i = 0; i < vertices; i++) {
+                parent.set(i, i);
+            }
+        }
+
+        public int find(int vertex) {
+            while (true) {
+                int p = parent.get(vertex);
+                if (p == vertex) {
+                    return vertex;
+                }
+                int grandparent = parent.get(p);
+                if (p != grandparent) {
+                    parent.compareAndSet(vertex, p, grandparent); // Halve the path; losing the race is fine
+                }
+                vertex = grandparent;
+            }
+        }
+
+        // Returns true if this call merged two different sets
+        public boolean union(int x, int y) {
+            while (true) {
+                int rootX = find(x);
+                int rootY = find(y);
+                if (rootX == rootY) {
+                    return false;
+                }
+                int low = Math.min(rootX, rootY), high = Math.max(rootX, rootY);
+                if (parent.compareAndSet(low, low, high)) {
+                    return true;
+                }
+            }
+        }
+
+        public boolean sameSet(int x, int y) {
+            while (true) {
+                int rootX = find(x);
+                int rootY = find(y);
+                if (rootX == rootY) {
+                    return true;
+                }
+                if (parent.get(rootX) == rootX) {
+                    return false; // rootX was still a root after rootY was read, so the sets differ
+                }
+            }
+        }
+
+        public int size() {
+            return parent.length();
+        }
+
+        // Unions random edges from several threads and checks the component count against DisjointSet
+        static void stressTest(int threads, int vertices, int edgesPerThread) throws InterruptedException {
+            ConcurrentDisjointSet concurrent = new ConcurrentDisjointSet(vertices);
+            int[][] sources = new int[threads][edgesPerThread], targets = new int[threads][edgesPerThread];
+            Random random = new Random(42);
+            for (int t = 0; t < threads; t++) {
+                for (int i = 0; i < edgesPerThread; i++) {
+                    sources[t][i] = random.nextInt(vertices);
+                    targets[t][i] = random.nextInt(vertices);
+                }
+            }
+
+            long elapsed = runWorkers(threads, t -> {
+                for (int i = 0; i < edgesPerThread; i++) {
+                    concurrent.union(sources[t][i], targets[t][i]);
+                    concurrent.sameSet(targets[t][i], sources[t][(i * 7) % edgesPerThread]);
+                }
+            });
+
+            DisjointSet sequential = new DisjointSet(vertices);
+            for (int t = 0; t < threads; t++) {
+                for (int i = 0; i < edgesPerThread; i++) {
+                    int rootSource = sequential.find(sources[t][i]);
+                    int rootDestination = sequential.find(targets[t][i]);
+                    if (rootSource != rootDestination) {
+                        sequential.union(rootSource, rootDestination);
+                    }
+                }
+            }
+            for (int v = 0; v < vertices; v++) {
+                int other = (int) ((v * 2654435761L) % vertices);
+                boolean expected = sequential.find(v) == sequential.find(other);
+                if (concurrent.sameSet(v, other) != expected) {
+                    throw new IllegalStateException("Concurrent union-find disagrees at " + v + ", " + other);
+                }
+            }
+            System.out.printf("%2d threads: %.1f M unions/s%n",
+                    threads, (long) threads * edgesPerThread * 1e3 / elapsed);
+        }
+
+        private static long runWorkers(int threads, IntConsumer work) throws InterruptedException {
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                new Thread(() -> {
+                    try {
+                        start.await();
+                        work.accept(id);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }).start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            done.await();
+            return System.nanoTime() - begin;
+        }
+    }
+
     // Class implementing Kruskal's Algorithm to find Minimum Spanning Tree
     public static class KruskalsAlgorithm {
         public static List<Edge> kruskalMST(List<Edge> edges, int vertices) {
@@ -78,7 +214,780 @@ public class QA3b {
         }
     }
 
-    public static void main(String[] args) {
+    // Structure-of-arrays edge store: edge i is src[i] - dst[i] with weight[i], no object per edge
+    public static class EdgeArrays {
+        int[] src, dst, weight;
+        int size;
+
+        public EdgeArrays(int capacity) {
+            src = new int[Math.max(capacity, 1)];
+            dst = new int[Math.max(capacity, 1)];
+            weight = new int[Math.max(capacity, 1)];
+        }
+
+        public static EdgeArrays fromEdges(List<Edge> edges) {
+            EdgeArrays store = new EdgeArrays(edges.size());
+            for (Edge edge : edges) {
+                store.add(edge.source, edge.destination, edge.weight);
+            }
+            return store;
+        }
+
+        public int add(int source, int destination, int edgeWeight) {
+            if (size == src.length) {
+                src = Arrays.copyOf(src, size * 2);
+                dst = Arrays.copyOf(dst, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+            }
+            src[size] = source;
+            dst[size] = destination;
+            weight[size] = edgeWeight;
+            return size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Edge indices ordered by weight using an LSD radix sort (8 bits per pass).
+        // The sort is stable, so equal weights keep their insertion order like Collections.sort.
+        public int[] sortedByWeight() {
+            int[] order = new int[size];
+            int[] buffer = new int[size];
+            int[] keys = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+                keys[i] = weight[i] ^ Integer.MIN_VALUE; // Flip the sign bit so negatives sort first
+            }
+
+            int[] counts = new int[257];
+            for (int shift = 0; shift < 32; shift += 8) {
+                Arrays.fill(counts, 0);
+                for (int i = 0; i < size; i++) {
+                    counts[((keys[order[i]] >>> shift) & 0xFF) + 1]++;
+                }
+                if (singleBucket(counts, size)) {
+                    continue; // Every key shares this byte, the pass would not change the order
+                }
+                for (int b = 0; b < 256; b++) {
+                    counts[b + 1] += counts[b];
+                }
+                for (int i = 0; i < size; i++) {
+                    buffer[counts[(keys[order[i]] >>> shift) & 0xFF]++] = order[i];
+                }
+                int[] swap = order;
+                order = buffer;
+                buffer = swap;
+            }
+            return order;
+        }
+
+        private static boolean singleBucket(int[] counts, int size) {
+            for (int count : counts) {
+                if (count == size) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Kruskal over an EdgeArrays store. Returns the indices of the accepted edges and stops as soon
+    // as vertices - 1 edges are in the tree.
+    public static int[] kruskalMST(EdgeArrays edges, int vertices) {
+        int[] accepted = new int[Math.max(vertices - 1, 0)];
+        int count = 0;
+        DisjointSet disjointSet = new DisjointSet(vertices);
+
+        for (int edge : edges.sortedByWeight()) {
+            if (count == accepted.length) {
+                break; // Tree is complete
+            }
+            int rootSource = disjointSet.find(edges.src[edge]);
+            int rootDestination = disjointSet.find(edges.dst[edge]);
+            if (rootSource != rootDestination) {
+                accepted[count++] = edge;
+                disjointSet.union(rootSource, rootDestination);
+            }
+        }
+
+        // Fewer than vertices - 1 edges means the graph was disconnected (spanning forest)
+        return count == accepted.length ? accepted : Arrays.copyOf(accepted, count);
+    }
+
+    // Multi-core MST using Boruvka rounds. In every round each component picks its cheapest outgoing
+    // edge in parallel (ties broken by edge index, so the choice is a strict total order and can never
+    // close a cycle), the picks are unioned into the DisjointSet, and edges that became internal are
+    // filtered out in parallel. At most log2(V) rounds are needed.
+    public static class ParallelBoruvka {
+        private static final long NONE = Long.MAX_VALUE;
+
+        public static int[] mst(EdgeArrays edges, int vertices) {
+            return mst(edges, vertices, ForkJoinPool.commonPool());
+        }
+
+        // Runs the parallel phases inside the given pool, which bounds the number of cores used
+        public static int[] mst(EdgeArrays edges, int vertices, ForkJoinPool pool) {
+            return pool.submit(() -> run(edges, vertices)).join();
+        }
+
+        private static int[] run(EdgeArrays edges, int vertices) {
+            DisjointSet disjointSet = new DisjointSet(vertices);
+            int[] component = new int[vertices];
+            AtomicLongArray cheapest = new AtomicLongArray(vertices);
+            int[] accepted = new int[Math.max(vertices - 1, 0)];
+            int count = 0;
+
+            int[] live = IntStream.range(0, edges.size()).toArray();
+            while (live.length > 0 && count < accepted.length) {
+                // Component of every vertex; read-only walk, safe to run in parallel
+                IntStream.range(0, vertices).parallel().forEach(v -> {
+                    component[v] = root(disjointSet, v);
+                    cheapest.set(v, NONE);
+                });
+
+                // Cheapest outgoing edge of each component, packed as (weight, index) for a CAS minimum
+                int[] current = live;
+                IntStream.range(0, current.length).parallel().forEach(i -> {
+                    int edge = current[i];
+                    int a = component[edges.src[edge]], b = component[edges.dst[edge]];
+                    if (a != b) {
+                        long key = ((long) edges.weight[edge] << 32) | edge;
+                        casMin(cheapest, a, key);
+                        casMin(cheapest, b, key);
+                    }
+                });
+
+                // Union the picks; two components may pick the same edge, so check again
+                int before = count;
+                for (int v = 0; v < vertices; v++) {
+                    long key = cheapest.get(v);
+                    if (component[v] != v || key == NONE) {
+                        continue;
+                    }
+                    int edge = (int) key;
+                    int rootSource = disjointSet.find(edges.src[edge]);
+                    int rootDestination = disjointSet.find(edges.dst[edge]);
+                    if (rootSource != rootDestination) {
+                        accepted[count++] = edge;
+                        disjointSet.union(rootSource, rootDestination);
+                    }
+                }
+                if (count == before) {
+                    break; // Remaining edges are all internal: the graph is disconnected
+                }
+
+                // Drop edges whose endpoints are now in the same component
+                live = Arrays.stream(current).parallel()
+                        .filter(edge -> root(disjointSet, edges.src[edge]) != root(disjointSet, edges.dst[edge]))
+                        .toArray();
+            }
+            return count == accepted.length ? accepted : Arrays.copyOf(accepted, count);
+        }
+
+        // Root lookup without path compression, so concurrent readers never write to the set
+        private static int root(DisjointSet disjointSet, int vertex) {
+            while (disjointSet.parent[vertex] != vertex) {
+                vertex = disjointSet.parent[vertex];
+            }
+            return vertex;
+        }
+
+        private static void casMin(AtomicLongArray array, int index, long value) {
+            long current = array.get(index);
+            while (value < current && !array.compareAndSet(index, current, value)) {
+                current = array.get(index);
+            }
+        }
+
+        // Times the sequential radix Kruskal against Boruvka on pools of increasing size
+        static void benchmark(int vertices, int edgeCount) {
+            Random random = new Random(42);
+            EdgeArrays edges = new EdgeArrays(edgeCount);
+            for (int v = 1; v < vertices; v++) {
+                edges.add(random.nextInt(v), v, random.nextInt(1_000_000)); // Keep the graph connected
+            }
+            while (edges.size() < edgeCount) {
+                edges.add(random.nextInt(vertices), random.nextInt(vertices), random.nextInt(1_000_000));
+            }
+
+            long start = System.nanoTime();
+            long expected = totalWeight(edges, kruskalMST(edges, vertices));
+            System.out.printf("kruskal: %d ms (weight %d)%n", (System.nanoTime() - start) / 1_000_000, expected);
+
+            for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                mst(edges, vertices, pool); // Warm-up
+                start = System.nanoTime();
+                long weight = totalWeight(edges, mst(edges, vertices, pool));
+                System.out.printf("boruvka %2d threads: %d ms (weight %d)%n",
+                        threads, (System.nanoTime() - start) / 1_000_000, weight);
+                pool.shutdown();
+            }
+        }
+    }
+
+    // Indexed d-ary min-heap over items 0 .. capacity-1 with long keys. Supports decrease-key through a
+    // position table, and heapify builds the heap bottom-up in O(n). A larger d makes the tree shallower,
+    // which helps decrease-key heavy workloads such as Prim on dense graphs.
+    public static class IndexedDaryHeap {
+        private final int d;
+        private final int[] heap;
+        private final int[] position; // -1 when the item is not in the heap
+        private final long[] key;
+        private int size;
+
+        public IndexedDaryHeap(int capacity, int d) {
+            if (d < 2) {
+                throw new IllegalArgumentException("Heap arity must be at least 2");
+            }
+            this.d = d;
+            heap = new int[capacity];
+            position = new int[capacity];
+            key = new long[capacity];
+            Arrays.fill(position, -1);
+        }
+
+        // Replaces the contents with items 0 .. count-1 keyed by keys[item], in O(count)
+        public void heapify(long[] keys, int count) {
+            clear();
+            for (int item = 0; item < count; item++) {
+                key[item] = keys[item];
+                heap[item] = item;
+                position[item] = item;
+            }
+            size = count;
+            for (int i = size > 1 ? (size - 2) / d : -1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean contains(int item) {
+            return position[item] >= 0;
+        }
+
+        public long keyOf(int item) {
+            return key[item];
+        }
+
+        public void insert(int item, long itemKey) {
+            if (contains(item)) {
+                throw new IllegalArgumentException("Item already in heap: " + item);
+            }
+            key[item] = itemKey;
+            heap[size] = item;
+            position[item] = size;
+            siftUp(size++);
+        }
+
+        public void decreaseKey(int item, long newKey) {
+            if (newKey > key[item]) {
+                throw new IllegalArgumentException("New key is larger than the current key");
+            }
+            key[item] = newKey;
+            siftUp(position[item]);
+        }
+
+        public int peekMin() {
+            return heap[0];
+        }
+
+        public int pollMin() {
+            if (size == 0) {
+                throw new NoSuchElementException("Heap is empty");
+            }
+            int min = heap[0];
+            position[min] = -1;
+            if (--size > 0) {
+                heap[0] = heap[size];
+                position[heap[0]] = 0;
+                siftDown(0);
+            }
+            return min;
+        }
+
+        public void clear() {
+            for (int i = 0; i < size; i++) {
+                position[heap[i]] = -1;
+            }
+            size = 0;
+        }
+
+        private void siftUp(int i) {
+            int item = heap[i];
+            while (i > 0) {
+                int parentIndex = (i - 1) / d;
+                if (key[heap[parentIndex]] <= key[item]) {
+                    break;
+                }
+                heap[i] = heap[parentIndex];
+                position[heap[i]] = i;
+                i = parentIndex;
+            }
+            heap[i] = item;
+            position[item] = i;
+        }
+
+        private void siftDown(int i) {
+            int item = heap[i];
+            while (true) {
+                int first = d * i + 1;
+                if (first >= size) {
+                    break;
+                }
+                int smallest = first;
+                int last = Math.min(first + d, size);
+                for (int child = first + 1; child < last; child++) {
+                    if (key[heap[child]] < key[heap[smallest]]) {
+                        smallest = child;
+                    }
+                }
+                if (key[heap[smallest]] >= key[item]) {
+                    break;
+                }
+                heap[i] = heap[smallest];
+                position[heap[i]] = i;
+                i = smallest;
+            }
+            heap[i] = item;
+            position[item] = i;
+        }
+    }
+
+    // Kruskal that heapifies the edges in O(E) and pops them lazily, stopping once vertices - 1
+    // edges are accepted, so the heaviest edges of a dense graph are never ordered at all
+    public static int[] lazyKruskalMST(EdgeArrays edges, int vertices) {
+        long[] keys = new long[edges.size()];
+        for (int edge = 0; edge < edges.size(); edge++) {
+            keys[edge] = edges.weight[edge];
+        }
+        IndexedDaryHeap heap = new IndexedDaryHeap(edges.size(), 4);
+        heap.heapify(keys, edges.size());
+
+        int[] accepted = new int[Math.max(vertices - 1, 0)];
+        int count = 0;
+        DisjointSet disjointSet = new DisjointSet(vertices);
+        while (count < accepted.length && !heap.isEmpty()) {
+            int edge = heap.pollMin();
+            int rootSource = disjointSet.find(edges.src[edge]);
+            int rootDestination = disjointSet.find(edges.dst[edge]);
+            if (rootSource != rootDestination) {
+                accepted[count++] = edge;
+                disjointSet.union(rootSource, rootDestination);
+            }
+        }
+        return count == accepted.length ? accepted : Arrays.copyOf(accepted, count);
+    }
+
+    // Prim with the indexed heap keyed by vertex (decrease-key instead of duplicate entries),
+    // O(E log_d V); suited to dense graphs. Returns edge indices, restarting in every component.
+    public static int[] primMST(EdgeArrays edges, int vertices) {
+        // Adjacency in CSR form: edges incident to v are incident[start[v] .. start[v + 1] - 1]
+        int[] start = new int[vertices + 1];
+        for (int edge = 0; edge < edges.size(); edge++) {
+            start[edges.src[edge] + 1]++;
+            start[edges.dst[edge] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            start[v + 1] += start[v];
+        }
+        int[] incident = new int[start[vertices]];
+        int[] fill = Arrays.copyOf(start, vertices);
+        for (int edge = 0; edge < edges.size(); edge++) {
+            incident[fill[edges.src[edge]]++] = edge;
+            incident[fill[edges.dst[edge]]++] = edge;
+        }
+
+        IndexedDaryHeap heap = new IndexedDaryHeap(vertices, 4);
+        boolean[] inTree = new boolean[vertices];
+        int[] bestEdge = new int[vertices];
+        int[] accepted = new int[Math.max(vertices - 1, 0)];
+        int count = 0;
+
+        for (int seed = 0; seed < vertices; seed++) {
+            if (inTree[seed]) {
+                continue;
+            }
+            bestEdge[seed] = -1;
+            heap.insert(seed, Long.MIN_VALUE);
+            while (!heap.isEmpty()) {
+                int v = heap.pollMin();
+                inTree[v] = true;
+                if (bestEdge[v] >= 0) {
+                    accepted[count++] = bestEdge[v];
+                }
+                for (int i = start[v]; i < start[v + 1]; i++) {
+                    int edge = incident[i];
+                    int other = edges.src[edge] == v ? edges.dst[edge] : edges.src[edge];
+                    if (inTree[other]) {
+                        continue;
+                    }
+                    long weight = edges.weight[edge];
+                    if (!heap.contains(other)) {
+                        bestEdge[other] = edge;
+                        heap.insert(other, weight);
+                    } else if (weight < heap.keyOf(other)) {
+                        bestEdge[other] = edge;
+                        heap.decreaseKey(other, weight);
+                    }
+                }
+            }
+        }
+        return count == accepted.length ? accepted : Arrays.copyOf(accepted, count);
+    }
+
+    // Compares sort-based, lazy-heap and Prim runs on a sparse and a dense random graph
+    static void benchmarkHeaps() {
+        int[][] shapes = {{200_000, 1_000_000}, {3_000, 4_000_000}}; // {vertices, edges}
+        for (int[] shape : shapes) {
+            int vertices = shape[0];
+            Random random = new Random(42);
+            EdgeArrays edges = new EdgeArrays(shape[1]);
+            List<Edge> edgeList = new ArrayList<>(shape[1]);
+            while (edges.size() < shape[1]) {
+                int a = random.nextInt(vertices), b = random.nextInt(vertices), w = random.nextInt(1_000_000);
+                edges.add(a, b, w);
+                edgeList.add(new Edge(a, b, w));
+            }
+
+            for (int round = 0; round < 3; round++) { // First rounds warm up the JIT
+                long t0 = System.nanoTime();
+                long sorted = 0;
+                for (Edge edge : KruskalsAlgorithm.kruskalMST(new ArrayList<>(edgeList), vertices)) {
+                    sorted += edge.weight;
+                }
+                long t1 = System.nanoTime();
+                long radix = totalWeight(edges, kruskalMST(edges, vertices));
+                long t2 = System.nanoTime();
+                long lazy = totalWeight(edges, lazyKruskalMST(edges, vertices));
+                long t3 = System.nanoTime();
+                long prim = totalWeight(edges, primMST(edges, vertices));
+                long t4 = System.nanoTime();
+                System.out.printf("V=%d E=%d: sort %d ms, radix %d ms, lazy heap %d ms, prim %d ms (weights %d %d %d %d)%n",
+                        vertices, edges.size(), (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000,
+                        (t3 - t2) / 1_000_000, (t4 - t3) / 1_000_000, sorted, radix, lazy, prim);
+            }
+        }
+    }
+
+    // Minimum spanning forest that is kept up to date under edge insertions and weight decreases.
+    // The forest is stored in a link-cut tree where every tree edge is its own node carrying its weight,
+    // so the heaviest edge on the cycle created by a new edge is a path-maximum query. Each update
+    // costs O(log V) amortized instead of a full re-sort, and the total weight is kept in a field.
+    // Slots of replaced edges are reused, so memory stays bounded by the forest size; an edge id is
+    // generation << 32 | slot, and the generation of a slot changes when its edge is cut, so an id
+    // held by a caller never refers to a later edge in the same slot.
+    public static class IncrementalMST {
+        private static final int NIL = -1;
+
+        private final int vertices;
+        private long totalWeight;
+        private int treeEdges;
+
+        // Link-cut tree nodes: 0 .. vertices-1 are vertices, the rest are edge nodes
+        private int[] left, right, parent;
+        private boolean[] flipped;
+        private long[] value;      // Edge weight, Long.MIN_VALUE for vertex nodes
+        private int[] maxNode;     // Node with the largest value in this splay subtree
+        private int[] edgeSource, edgeDestination;
+        private boolean[] inTree;  // Whether an edge node is currently part of the forest
+        private int[] generation;  // Bumped each time an edge node is cut
+        private int nodes;
+        private int[] freeSlots = new int[8];
+        private int freeCount;
+        private final long[] seedIds; // Edge id of each seed edge index, -1 if kruskalMST skipped it
+        private int[] pushStack = new int[16]; // Scratch path for splay
+
+        // Starts from the tree kruskalMST builds for the given edges
+        public IncrementalMST(EdgeArrays edges, int vertices) {
+            this.vertices = vertices;
+            int capacity = vertices + Math.max(vertices, 1);
+            left = new int[capacity];
+            right = new int[capacity];
+            parent = new int[capacity];
+            flipped = new boolean[capacity];
+            value = new long[capacity];
+            maxNode = new int[capacity];
+            edgeSource = new int[capacity];
+            edgeDestination = new int[capacity];
+            inTree = new boolean[capacity];
+            generation = new int[capacity];
+            for (int v = 0; v < vertices; v++) {
+                initNode(v, Long.MIN_VALUE);
+            }
+            nodes = vertices;
+
+            seedIds = new long[edges.size()];
+            Arrays.fill(seedIds, NIL);
+            for (int edge : kruskalMST(edges, vertices)) {
+                seedIds[edge] = linkEdge(edges.src[edge], edges.dst[edge], edges.weight[edge]);
+            }
+        }
+
+        // Edge id for index edgeIndex of the seed EdgeArrays, for use with decreaseWeight and
+        // isTreeEdge; -1 if that edge was not part of the initial tree
+        public long edgeIdOfSeedEdge(int edgeIndex) {
+            return seedIds[edgeIndex];
+        }
+
+        // Adds an edge; returns its id if it entered the forest, -1 if it was not needed.
+        // Lowering the weight of an existing link is the same as inserting it again with the new
+        // weight: a cheaper parallel edge either replaces the old tree edge or is rejected.
+        public long insertEdge(int source, int destination, int weight) {
+            if (source == destination) {
+                return NIL;
+            }
+            if (findRoot(source) != findRoot(destination)) {
+                return linkEdge(source, destination, weight);
+            }
+
+            // Heaviest edge on the tree path between the endpoints
+            makeRoot(source);
+            access(destination);
+            splay(destination);
+            int heaviest = maxNode[destination];
+            if (value[heaviest] <= weight) {
+                return NIL; // The new edge would be the heaviest on its cycle
+            }
+            cutEdge(heaviest);
+            return linkEdge(source, destination, weight);
+        }
+
+        // Lowers the weight of an edge already in the forest; the tree stays minimum
+        public void decreaseWeight(long edgeId, int newWeight) {
+            int node = (int) edgeId;
+            if (!isTreeEdge(edgeId) || newWeight > value[node]) {
+                throw new IllegalArgumentException("Not a tree edge or not a decrease: " + edgeId);
+            }
+            splay(node);
+            totalWeight += newWeight - value[node];
+            value[node] = newWeight;
+            pull(node);
+        }
+
+        public long totalWeight() {
+            return totalWeight;
+        }
+
+        public int edgeCount() {
+            return treeEdges;
+        }
+
+        public boolean isTreeEdge(long edgeId) {
+            int node = (int) edgeId;
+            return node >= vertices && node < nodes && inTree[node] && generation[node] == (int) (edgeId >>> 32);
+        }
+
+        // Current forest as {source, destination, weight} triples
+        public List<Edge> edges() {
+            List<Edge> result = new ArrayList<>();
+            for (int node = vertices; node < nodes; node++) {
+                if (inTree[node]) {
+                    result.add(new Edge(edgeSource[node], edgeDestination[node], (int) value[node]));
+                }
+            }
+            return result;
+        }
+
+        private long linkEdge(int source, int destination, int weight) {
+            int node = freeCount > 0 ? freeSlots[--freeCount] : newNode();
+            initNode(node, weight);
+            edgeSource[node] = source;
+            edgeDestination[node] = destination;
+            inTree[node] = true;
+            link(source, node);
+            link(node, destination);
+            totalWeight += weight;
+            treeEdges++;
+            return (long) generation[node] << 32 | node;
+        }
+
+        private void cutEdge(int node) {
+            cut(edgeSource[node], node);
+            cut(node, edgeDestination[node]);
+            inTree[node] = false;
+            totalWeight -= value[node];
+            treeEdges--;
+            generation[node]++; // Ids issued for this slot so far are now stale
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = node;
+        }
+
+        private int newNode() {
+            if (nodes == left.length) {
+                int capacity = nodes * 2;
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+                flipped = Arrays.copyOf(flipped, capacity);
+                value = Arrays.copyOf(value, capacity);
+                maxNode = Arrays.copyOf(maxNode, capacity);
+                edgeSource = Arrays.copyOf(edgeSource, capacity);
+                edgeDestination = Arrays.copyOf(edgeDestination, capacity);
+                inTree = Arrays.copyOf(inTree, capacity);
+                generation = Arrays.copyOf(generation, capacity);
+            }
+            return nodes++;
+        }
+
+        private void initNode(int node, long nodeValue) {
+            left[node] = right[node] = parent[node] = NIL;
+            flipped[node] = false;
+            value[node] = nodeValue;
+            maxNode[node] = node;
+        }
+
+        // --- Link-cut tree primitives ---
+
+        private boolean isSplayRoot(int x) {
+            int p = parent[x];
+            return p == NIL || (left[p] != x && right[p] != x);
+        }
+
+        private void pull(int x) {
+            int best = x;
+            if (left[x] != NIL && value[maxNode[left[x]]] > value[best]) {
+                best = maxNode[left[x]];
+            }
+            if (right[x] != NIL && value[maxNode[right[x]]] > value[best]) {
+                best = maxNode[right[x]];
+            }
+            maxNode[x] = best;
+        }
+
+        private void push(int x) {
+            if (flipped[x]) {
+                int tmp = left[x];
+                left[x] = right[x];
+                right[x] = tmp;
+                if (left[x] != NIL) {
+                    flipped[left[x]] ^= true;
+                }
+                if (right[x] != NIL) {
+                    flipped[right[x]] ^= true;
+                }
+                flipped[x] = false;
+            }
+        }
+
+        private void rotate(int x) {
+            int p = parent[x], g = parent[p];
+            boolean pIsRoot = isSplayRoot(p);
+            if (left[p] == x) {
+                left[p] = right[x];
+                if (right[x] != NIL) {
+                    parent[right[x]] = p;
+                }
+                right[x] = p;
+            } else {
+                right[p] = left[x];
+                if (left[x] != NIL) {
+                    parent[left[x]] = p;
+                }
+                left[x] = p;
+            }
+            parent[p] = x;
+            parent[x] = g;
+            if (!pIsRoot) {
+                if (left[g] == p) {
+                    left[g] = x;
+                } else {
+                    right[g] = x;
+                }
+            }
+            pull(p);
+            pull(x);
+        }
+
+        private void splay(int x) {
+            // Push pending flips from the splay root down to x
+            int depth = 0;
+            for (int y = x; ; y = parent[y]) {
+                if (depth == pushStack.length) {
+                    pushStack = Arrays.copyOf(pushStack, depth * 2);
+                }
+                pushStack[depth++] = y;
+                if (isSplayRoot(y)) {
+                    break;
+                }
+            }
+            while (depth > 0) {
+                push(pushStack[--depth]);
+            }
+
+            while (!isSplayRoot(x)) {
+                int p = parent[x];
+                if (!isSplayRoot(p)) {
+                    int g = parent[p];
+                    rotate((left[g] == p) == (left[p] == x) ? p : x);
+                }
+                rotate(x);
+            }
+        }
+
+        private void access(int x) {
+            int last = NIL;
+            for (int y = x; y != NIL; y = parent[y]) {
+                splay(y);
+                right[y] = last;
+                pull(y);
+                last = y;
+            }
+            splay(x);
+        }
+
+        private void makeRoot(int x) {
+            access(x);
+            flipped[x] ^= true;
+        }
+
+        private int findRoot(int x) {
+            access(x);
+            int root = x;
+            push(root);
+            while (left[root] != NIL) {
+                root = left[root];
+                push(root);
+            }
+            splay(root);
+            return root;
+        }
+
+        private void link(int x, int y) {
+            makeRoot(x);
+            parent[x] = y;
+        }
+
+        private void cut(int x, int y) {
+            makeRoot(x);
+            access(y);
+            // x is now the left child of y with nothing between them
+            left[y] = NIL;
+            parent[x] = NIL;
+            pull(y);
+        }
+    }
+
+    // Sum of the weights of the given edge indices
+    public static long totalWeight(EdgeArrays edges, int[] edgeIndices) {
+        long total = 0;
+        for (int edge : edgeIndices) {
+            total += edges.weight[edge];
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
         int vertices = 4;
         List<Edge> edges = new ArrayList<>();
         edges.add(new Edge(0, 1, 10));
@@ -95,5 +1004,25 @@ public class QA3b {
         for (Edge edge : minimumSpanningTree) {
             System.out.println(edge.source + " - " + edge.destination + " : " + edge.weight);
         }
+
+        // Same tree from the primitive edge store, reported as indices into the (now sorted) edge list
+        EdgeArrays edgeArrays = EdgeArrays.fromEdges(edges);
+        System.out.println("MST edge indices: " + Arrays.toString(kruskalMST(edgeArrays, vertices)));
+        System.out.println("Boruvka MST weight: " + totalWeight(edgeArrays, ParallelBoruvka.mst(edgeArrays, vertices)));
+
+        IncrementalMST incremental = new IncrementalMST(edgeArrays, vertices);
+        incremental.insertEdge(1, 2, 3); // Replaces 0 - 1 : 10 on the cycle 1 - 2 - 3 - 0
+        System.out.println("Weight after inserting 1 - 2 : 3: " + incremental.totalWeight()); // Output: 12
+
+        System.out.println("Lazy Kruskal weight: " + totalWeight(edgeArrays, lazyKruskalMST(edgeArrays, vertices)));
+        System.out.println("Prim weight: " + totalWeight(edgeArrays, primMST(edgeArrays, vertices)));
+
+        if (args.length > 0 && args[0].equals("bench")) {
+            ParallelBoruvka.benchmark(2_000_000, 10_000_000);
+            benchmarkHeaps();
+            for (int threads : new int[]{1, 2, 4, 8, 16}) {
+                ConcurrentDisjointSet.stressTest(threads, 1_000_000, 4_000_000 / threads);
+            }
+        }
     }
 }
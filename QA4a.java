@@ -22,7 +22,21 @@
 
 
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 class QA4a {
     static final int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}}; // Up, Down, Left, Right
@@ -75,6 +89,853 @@ class QA4a {
         return -1; // If not possible to collect all keys
     }
 
+    // Same search as shortestPathAllKeys without per-state objects or strings. The grid is flattened
+    // into a byte[] once, a state is encoded as cell * 64 + keyMask, visited states are bits in a
+    // long[], and the queue is a primitive int ring buffer processed level by level.
+    public static int shortestPathAllKeysPacked(String[] grid) {
+        int m = grid.length;
+        int n = grid[0].length();
+        if ((long) m * n * 64 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid too large for packed int states");
+        }
+
+        byte[] cells = new byte[m * n];
+        int start = 0, totalKeys = 0;
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                char cell = grid[i].charAt(j);
+                cells[i * n + j] = (byte) cell;
+                if (cell == 'S') {
+                    start = i * n + j;
+                } else if (cell >= 'a' && cell <= 'f') {
+                    totalKeys |= (1 << (cell - 'a')); // Mark the key as needed to be collected
+                }
+            }
+        }
+        if (totalKeys == 0) {
+            return 0;
+        }
+
+        long[] visited = new long[(m * n * 64 + 63) >>> 6];
+        IntRingQueue queue = new IntRingQueue(1024);
+        int startState = start << 6;
+        visited[startState >>> 6] |= 1L << startState;
+        queue.offer(startState);
+
+        for (int steps = 0; !queue.isEmpty(); steps++) {
+            for (int level = queue.size(); level > 0; level--) {
+                int state = queue.poll();
+                int cell = state >>> 6, keys = state & 63;
+                int x = cell / n, y = cell % n;
+
+                for (int[] dir : directions) {
+                    int newX = x + dir[0], newY = y + dir[1];
+                    if (newX < 0 || newX >= m || newY < 0 || newY >= n) continue;
+                    int next = newX * n + newY;
+                    int nextCell = cells[next];
+                    int newKeys = keys;
+                    if (nextCell == 'W') continue; // Wall
+                    if (nextCell >= 'A' && nextCell <= 'F' && (newKeys & (1 << (nextCell - 'A'))) == 0) continue; // Locked door without key
+                    if (nextCell >= 'a' && nextCell <= 'f') newKeys |= (1 << (nextCell - 'a')); // Collect key
+                    if (newKeys == totalKeys) return steps + 1; // Found all keys
+
+                    int newState = (next << 6) | newKeys;
+                    long bit = 1L << newState;
+                    if ((visited[newState >>> 6] & bit) == 0) {
+                        visited[newState >>> 6] |= bit;
+                        queue.offer(newState);
+                    }
+                }
+            }
+        }
+
+        return -1; // If not possible to collect all keys
+    }
+
+    // Solver over the small graph of points of interest instead of every (cell, keyMask) state.
+    // A grid BFS from a point under a given key mask gives the distance to every key it can reach
+    // without picking up another key first, and to the exit; Dijkstra then runs over (point, mask)
+    // with an admissible Manhattan-distance heuristic (A*). Unlike shortestPathAllKeys this also
+    // requires reaching 'E' after the last key when the grid has an exit.
+    public static int shortestPathAllKeysAndExit(String[] grid) {
+        MazeLayout layout = new MazeLayout(grid);
+        return new KeyGraph(layout).shortestPath(layout.startCell);
+    }
+
+    // Flattened grid plus the positions of the keys, the start and the exit
+    static class MazeLayout {
+        static final int MAX_KEYS = 6;
+        static final int EXIT = MAX_KEYS; // Index of the exit in BFS result arrays
+
+        final int m, n;
+        final byte[] cells;
+        final int[] keyCells = new int[MAX_KEYS]; // -1 for keys not in the grid
+        final int allKeys;
+        final int startCell, exitCell;            // exitCell is -1 when the grid has no 'E'
+
+        MazeLayout(String[] grid) {
+            m = grid.length;
+            n = grid[0].length();
+            cells = new byte[m * n];
+            Arrays.fill(keyCells, -1);
+            int start = -1, exit = -1, keys = 0;
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < n; j++) {
+                    char cell = grid[i].charAt(j);
+                    cells[i * n + j] = (byte) cell;
+                    if (cell == 'S') {
+                        start = i * n + j;
+                    } else if (cell == 'E') {
+                        exit = i * n + j;
+                    } else if (cell >= 'a' && cell <= 'f') {
+                        keyCells[cell - 'a'] = i * n + j;
+                        keys |= (1 << (cell - 'a'));
+                    }
+                }
+            }
+            startCell = start;
+            // With a key 'e' in the grid, 'E' is its door rather than the exit
+            exitCell = (keys & (1 << ('e' - 'a'))) != 0 ? -1 : exit;
+            allKeys = keys;
+        }
+
+        boolean isOpen(int cell) {
+            return cells[cell] != 'W';
+        }
+
+        boolean isLockedDoor(int type, int mask) {
+            if (type == 'E' && exitCell >= 0) {
+                return false; // The exit
+            }
+            return type >= 'A' && type <= 'F' && (mask & (1 << (type - 'A'))) == 0;
+        }
+
+        // BFS from one cell where only doors in mask can be crossed. Keys outside mask are targets:
+        // the walk stops there, since continuing would collect them. Returns distances to each key
+        // and to the exit (index EXIT), -1 where unreachable.
+        int[] distancesFrom(int from, int mask) {
+            int[] result = new int[MAX_KEYS + 1];
+            Arrays.fill(result, -1);
+            int[] dist = new int[m * n];
+            Arrays.fill(dist, -1);
+            IntRingQueue queue = new IntRingQueue(256);
+            dist[from] = 0;
+            queue.offer(from);
+
+            while (!queue.isEmpty()) {
+                int cell = queue.poll();
+                int type = cells[cell];
+                if (type == 'E' && exitCell >= 0) {
+                    result[EXIT] = dist[cell];
+                }
+                if (type >= 'a' && type <= 'f' && cell != from && (mask & (1 << (type - 'a'))) == 0) {
+                    result[type - 'a'] = dist[cell];
+                    continue; // New key: stop here, the key graph continues from it
+                }
+                int x = cell / n, y = cell % n;
+                for (int[] dir : directions) {
+                    int newX = x + dir[0], newY = y + dir[1];
+                    if (newX < 0 || newX >= m || newY < 0 || newY >= n) continue;
+                    int next = newX * n + newY;
+                    int nextCell = cells[next];
+                    if (dist[next] >= 0 || nextCell == 'W') continue;
+                    if (isLockedDoor(nextCell, mask)) continue;
+                    dist[next] = dist[cell] + 1;
+                    queue.offer(next);
+                }
+            }
+            return result;
+        }
+
+        // Reverse of distancesFrom for one target: the distance from every cell to target under mask,
+        // -1 where unreachable. Moves are symmetric, so entry [s] equals what distancesFrom(s, mask)
+        // reports for target, as long as s is not a key cell. Locked doors and keys outside mask are
+        // recorded but not expanded, since a forward walk can only start or end on them.
+        int[] distancesTo(int target, int mask) {
+            int[] dist = new int[m * n];
+            Arrays.fill(dist, -1);
+            IntRingQueue queue = new IntRingQueue(256);
+            dist[target] = 0;
+            queue.offer(target);
+
+            while (!queue.isEmpty()) {
+                int cell = queue.poll();
+                int type = cells[cell];
+                if (cell != target && (isLockedDoor(type, mask)
+                        || (type >= 'a' && type <= 'f' && (mask & (1 << (type - 'a'))) == 0))) {
+                    continue;
+                }
+                int x = cell / n, y = cell % n;
+                for (int[] dir : directions) {
+                    int newX = x + dir[0], newY = y + dir[1];
+                    if (newX < 0 || newX >= m || newY < 0 || newY >= n) continue;
+                    int next = newX * n + newY;
+                    if (dist[next] >= 0 || cells[next] == 'W') continue;
+                    dist[next] = dist[cell] + 1;
+                    queue.offer(next);
+                }
+            }
+            return dist;
+        }
+
+        int manhattan(int a, int b) {
+            return Math.abs(a / n - b / n) + Math.abs(a % n - b % n);
+        }
+    }
+
+    // Dijkstra / A* over (point, keyMask); distance tables from keys are computed once per
+    // (key, mask) and shared between searches, so one KeyGraph can serve many queries
+    static class KeyGraph {
+        private static final int START = MazeLayout.MAX_KEYS;    // Node index of the query start
+        private static final int EXIT = MazeLayout.MAX_KEYS + 1; // Node index of the exit
+        private static final int NODES = MazeLayout.MAX_KEYS + 2;
+
+        final MazeLayout layout;
+        private final AtomicReferenceArray<int[]> keyTables =
+                new AtomicReferenceArray<>(MazeLayout.MAX_KEYS * 64);
+
+        // Per key (and EXIT), the distance from every cell under mask 0; null until precomputeStarts
+        private int[][] startReach;
+
+        KeyGraph(MazeLayout layout) {
+            this.layout = layout;
+        }
+
+        // One whole-grid BFS per key, and to the exit when there are no keys, so that the first leg of
+        // a query from a non-key cell is a few table lookups instead of a BFS from the start
+        void precomputeStarts() {
+            int[][] reach = new int[MazeLayout.MAX_KEYS + 1][];
+            for (int key = 0; key < MazeLayout.MAX_KEYS; key++) {
+                if (layout.keyCells[key] >= 0) {
+                    reach[key] = layout.distancesTo(layout.keyCells[key], 0);
+                }
+            }
+            if (layout.allKeys == 0 && layout.exitCell >= 0) {
+                reach[MazeLayout.EXIT] = layout.distancesTo(layout.exitCell, 0);
+            }
+            startReach = reach;
+        }
+
+        // Distances from the query start under its initial mask, in the layout of distancesFrom
+        private int[] startTable(int startCell, int mask) {
+            if (mask != 0) {
+                int key = Integer.numberOfTrailingZeros(mask); // The start is this key's cell
+                if (layout.keyCells[key] == startCell) {
+                    return fromKey(key, mask);
+                }
+            } else if (startReach != null) {
+                int[] table = new int[MazeLayout.MAX_KEYS + 1];
+                for (int target = 0; target <= MazeLayout.EXIT; target++) {
+                    table[target] = startReach[target] == null ? -1 : startReach[target][startCell];
+                }
+                return table;
+            }
+            return layout.distancesFrom(startCell, mask);
+        }
+
+        // Distances from a key cell under mask, computed on first use
+        int[] fromKey(int key, int mask) {
+            int slot = key * 64 + mask;
+            int[] table = keyTables.get(slot);
+            if (table == null) {
+                table = layout.distancesFrom(layout.keyCells[key], mask);
+                keyTables.compareAndSet(slot, null, table); // Another thread may have filled it first
+            }
+            return table;
+        }
+
+        // Fewest moves from startCell to collect every key (and then reach the exit, if any)
+        int shortestPath(int startCell) {
+            if (startCell < 0 || !layout.isOpen(startCell)) {
+                return -1;
+            }
+            int[] best = new int[NODES * 64];
+            Arrays.fill(best, Integer.MAX_VALUE);
+            boolean hasExit = layout.exitCell >= 0;
+
+            // Picking up keys is unavoidable when the start itself is a key cell
+            int startMask = 0;
+            int startType = layout.cells[startCell];
+            if (startType >= 'a' && startType <= 'f') {
+                startMask = 1 << (startType - 'a');
+            }
+
+            PriorityQueue<int[]> open = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+            best[START * 64 + startMask] = 0;
+            open.offer(new int[]{heuristic(startCell, startMask), 0, START, startMask});
+
+            while (!open.isEmpty()) {
+                int[] entry = open.poll();
+                int steps = entry[1], node = entry[2], mask = entry[3];
+                if (steps > best[node * 64 + mask]) continue; // Stale entry
+                if (node == EXIT) {
+                    return steps; // The heuristic is consistent, so the first exit popped is optimal
+                }
+
+                // START is only ever queued with startMask, so it is expanded once
+                int[] table = node == START ? startTable(startCell, mask) : fromKey(node, mask);
+
+                if (mask == layout.allKeys) {
+                    if (!hasExit) {
+                        return steps; // All keys collected
+                    }
+                    // Final leg to the exit
+                    if (table[MazeLayout.EXIT] >= 0) {
+                        relax(open, best, EXIT, mask, steps + table[MazeLayout.EXIT], 0);
+                    }
+                    continue;
+                }
+
+                for (int key = 0; key < MazeLayout.MAX_KEYS; key++) {
+                    if (table[key] < 0 || (mask & (1 << key)) != 0) continue;
+                    int newMask = mask | (1 << key);
+                    relax(open, best, key, newMask, steps + table[key], heuristic(layout.keyCells[key], newMask));
+                }
+            }
+            return -1;
+        }
+
+        private static void relax(PriorityQueue<int[]> open, int[] best, int node, int mask, int steps, int estimate) {
+            if (steps < best[node * 64 + mask]) {
+                best[node * 64 + mask] = steps;
+                open.offer(new int[]{steps + estimate, steps, node, mask});
+            }
+        }
+
+        // Lower bound on the remaining moves: the farthest missing key, or the exit, by Manhattan distance
+        private int heuristic(int cell, int mask) {
+            int bound = 0;
+            for (int key = 0; key < MazeLayout.MAX_KEYS; key++) {
+                if ((layout.allKeys & ~mask & (1 << key)) != 0) {
+                    bound = Math.max(bound, layout.manhattan(cell, layout.keyCells[key]));
+                }
+            }
+            if (layout.exitCell >= 0) {
+                bound = Math.max(bound, layout.manhattan(cell, layout.exitCell));
+            }
+            return bound;
+        }
+    }
+
+    // Index built once per static map for answering many "all keys from here" queries.
+    // It holds the parsed layout and the key graph, whose per-(key, mask) distance tables are
+    // shared by every query, and an LRU cache of recent answers by start cell. The constructor runs
+    // one whole-grid BFS per key, so no query runs a grid BFS from its own start. Safe to query
+    // from many threads at once.
+    public static class MazeIndex {
+        private final MazeLayout layout;
+        private final KeyGraph keyGraph;
+        private final Map<Integer, Integer> recent;
+
+        public MazeIndex(String[] grid) {
+            this(grid, 4096);
+        }
+
+        public MazeIndex(String[] grid, int cacheSize) {
+            layout = new MazeLayout(grid);
+            keyGraph = new KeyGraph(layout);
+            keyGraph.precomputeStarts();
+            recent = Collections.synchronizedMap(new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    return size() > cacheSize;
+                }
+            });
+        }
+
+        // Fewest moves from the 'S' cell of the grid
+        public int shortestPath() {
+            return shortestPathFromCell(layout.startCell);
+        }
+
+        // Fewest moves from (row, col) to collect every key and then reach the exit, -1 if impossible
+        public int shortestPath(int row, int col) {
+            if (row < 0 || row >= layout.m || col < 0 || col >= layout.n) {
+                throw new IllegalArgumentException("Start cell outside the grid: " + row + ", " + col);
+            }
+            return shortestPathFromCell(row * layout.n + col);
+        }
+
+        // Computes the distance tables of every key and mask ahead of time
+        public void precompute() {
+            for (int key = 0; key < MazeLayout.MAX_KEYS; key++) {
+                if (layout.keyCells[key] < 0) continue;
+                for (int mask = 0; mask < 64; mask++) {
+                    if ((mask & ~layout.allKeys) == 0 && (mask & (1 << key)) != 0) {
+                        keyGraph.fromKey(key, mask);
+                    }
+                }
+            }
+        }
+
+        private int shortestPathFromCell(int cell) {
+            Integer cached = recent.get(cell);
+            if (cached != null) {
+                return cached;
+            }
+            // Two threads may compute the same answer; both results are identical
+            int steps = keyGraph.shortestPath(cell);
+            recent.put(cell, steps);
+            return steps;
+        }
+    }
+
+    // Compact binary maze: big-endian int rows, int cols, then one byte per cell in row-major order.
+    // The cells are memory-mapped, so a 20k x 20k grid costs 400 MB of page cache instead of a String[].
+    public static class GridFile {
+        private static final int HEADER = 2 * Integer.BYTES;
+
+        final int m, n;
+        final int startCell, exitCell; // exitCell is -1 without an exit (or when 'E' is the door of key 'e')
+        final int allKeys;
+        private final MappedByteBuffer cells;
+
+        private GridFile(int m, int n, MappedByteBuffer cells) {
+            this.m = m;
+            this.n = n;
+            this.cells = cells;
+            int start = -1, exit = -1, keys = 0;
+            for (int cell = 0; cell < m * n; cell++) {
+                int type = cellAt(cell);
+                if (type == 'S') {
+                    start = cell;
+                } else if (type == 'E') {
+                    exit = cell;
+                } else if (type >= 'a' && type <= 'f') {
+                    keys |= (1 << (type - 'a'));
+                }
+            }
+            startCell = start;
+            exitCell = (keys & (1 << ('e' - 'a'))) != 0 ? -1 : exit;
+            allKeys = keys;
+        }
+
+        public static GridFile open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+                int m = header.getInt(), n = header.getInt();
+                if ((long) m * n + HEADER != channel.size() || (long) m * n > Integer.MAX_VALUE - HEADER) {
+                    throw new IOException("Grid file size does not match its " + m + " x " + n + " header");
+                }
+                // The mapping stays valid after the channel is closed
+                return new GridFile(m, n, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        public static void write(Path file, String[] grid) throws IOException {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(grid.length);
+                out.writeInt(grid[0].length());
+                for (String row : grid) {
+                    for (int j = 0; j < row.length(); j++) {
+                        out.writeByte(row.charAt(j));
+                    }
+                }
+            }
+        }
+
+        // Absolute reads only, so any number of threads can share the buffer
+        int cellAt(int cell) {
+            return cells.get(HEADER + cell);
+        }
+
+        // Key mask after stepping onto cell with mask, or -1 if the cell is a wall or a locked door
+        int enter(int cell, int mask) {
+            int type = cellAt(cell);
+            if (type == 'W') return -1;
+            if (type == 'E' && exitCell >= 0) return mask;
+            if (type >= 'A' && type <= 'F' && (mask & (1 << (type - 'A'))) == 0) return -1;
+            if (type >= 'a' && type <= 'f') return mask | (1 << (type - 'a'));
+            return mask;
+        }
+    }
+
+    // Level-synchronous BFS over a memory-mapped grid on a fork/join pool. Every key mask that has been
+    // reached gets a visited bitset, a frontier bitset and a next-level bitset; each level, chunks of
+    // frontier words are expanded in parallel and newly seen states are claimed with a CAS on the
+    // visited word. Frontiers are sparse and summarized, so a level costs time in proportion to its
+    // occupied words rather than to the band of rows it spans. Without keys the search is a point-to-point S to E query, so it runs
+    // bidirectionally, always expanding the smaller frontier. With keys the search stays one-directional,
+    // including the last all-keys to E stretch: a backward search from E only sees the all-keys layer,
+    // and the forward side enters that layer at many depths, so a first meeting is not a proof of a
+    // shortest path. Same answers as shortestPathAllKeysAndExit.
+    public static class ParallelMazeSolver {
+        private static final int CHUNK_SHIFT = 12; // 4096 cells, 64 words per frontier chunk
+        private static final int MAX_IDLE_CLEARS = 8;
+
+        private final GridFile grid;
+        private final int words;
+        private final int chunks;
+
+        public ParallelMazeSolver(GridFile grid) {
+            this.grid = grid;
+            this.words = (int) (((long) grid.m * grid.n + 63) >>> 6);
+            this.chunks = (words + 63) >>> 6;
+        }
+
+        public int shortestPath() {
+            return shortestPath(ForkJoinPool.commonPool());
+        }
+
+        public int shortestPath(ForkJoinPool pool) {
+            if (grid.startCell < 0) {
+                return -1;
+            }
+            if (grid.allKeys == 0) {
+                if (grid.exitCell < 0) {
+                    return 0; // Nothing to collect and nowhere to go
+                }
+                return pool.submit(this::bidirectional).join();
+            }
+            return pool.submit(this::layered).join();
+        }
+
+        // Bitset of the cells in one BFS level. The cell words live in 64-word chunks that are allocated
+        // on first use and dropped once they stay empty for a few levels, so a frontier holds the chunks
+        // its wavefront touched recently and an idle one costs about 1 MB at 20k x 20k instead of 50 MB.
+        // Two summary levels, one bit per non-zero word and one bit per chunk, let scans skip empty
+        // regions.
+        private final class Frontier {
+            final AtomicReferenceArray<AtomicLongArray> cells = new AtomicReferenceArray<>(chunks);
+            final AtomicLongArray wordSummary = new AtomicLongArray(chunks);
+            final AtomicLongArray chunkSummary = new AtomicLongArray((chunks + 63) >>> 6);
+            final byte[] idleClears = new byte[chunks];
+            int[] retained = new int[0]; // Allocated chunks, zeroed by the last clear
+
+            // Safe to call from several workers at once
+            void add(int cell) {
+                int chunk = cell >>> CHUNK_SHIFT;
+                AtomicLongArray words = cells.get(chunk);
+                if (words == null) {
+                    cells.compareAndSet(chunk, null, new AtomicLongArray(64));
+                    words = cells.get(chunk);
+                }
+                setBit(words, cell & ((1 << CHUNK_SHIFT) - 1));
+                setBit(wordSummary, cell >>> 6);
+                setBit(chunkSummary, chunk);
+            }
+
+            // Indices of the chunks holding at least one cell
+            int[] occupiedChunks() {
+                int[] occupied = new int[16];
+                int count = 0;
+                for (int i = 0; i < chunkSummary.length(); i++) {
+                    for (long bits = chunkSummary.get(i); bits != 0; bits &= bits - 1) {
+                        if (count == occupied.length) {
+                            occupied = Arrays.copyOf(occupied, count * 2);
+                        }
+                        occupied[count++] = (i << 6) + Long.numberOfTrailingZeros(bits);
+                    }
+                }
+                return Arrays.copyOf(occupied, count);
+            }
+
+            boolean isEmpty() {
+                for (int i = 0; i < chunkSummary.length(); i++) {
+                    if (chunkSummary.get(i) != 0) return false;
+                }
+                return true;
+            }
+
+            // Zeroes the occupied chunks and keeps them, since a ragged wavefront keeps coming back to
+            // the same chunks; a kept chunk is dropped once it misses MAX_IDLE_CLEARS clears in a row
+            void clear() {
+                int[] occupied = occupiedChunks();
+                int[] kept = new int[retained.length + occupied.length];
+                int count = 0;
+                for (int chunk : retained) {
+                    if (testBit(chunkSummary, chunk)) continue; // Kept again below
+                    if (++idleClears[chunk] > MAX_IDLE_CLEARS) {
+                        cells.set(chunk, null);
+                    } else {
+                        kept[count++] = chunk;
+                    }
+                }
+                for (int chunk : occupied) {
+                    AtomicLongArray words = cells.get(chunk);
+                    for (long summary = wordSummary.get(chunk); summary != 0; summary &= summary - 1) {
+                        words.set(Long.numberOfTrailingZeros(summary), 0);
+                    }
+                    wordSummary.set(chunk, 0);
+                    idleClears[chunk] = 0;
+                    kept[count++] = chunk;
+                }
+                for (int chunk : occupied) {
+                    chunkSummary.set(chunk >>> 6, 0);
+                }
+                retained = Arrays.copyOf(kept, count);
+            }
+
+            long count() {
+                long total = 0;
+                for (int chunk : occupiedChunks()) {
+                    AtomicLongArray words = cells.get(chunk);
+                    for (long summary = wordSummary.get(chunk); summary != 0; summary &= summary - 1) {
+                        total += Long.bitCount(words.get(Long.numberOfTrailingZeros(summary)));
+                    }
+                }
+                return total;
+            }
+        }
+
+        // Bitsets of one key mask; only visited is dense
+        private final class Layer {
+            final AtomicLongArray visited = new AtomicLongArray(words);
+            Frontier frontier = new Frontier();
+            Frontier next = new Frontier();
+        }
+
+        private int layered() {
+            AtomicReferenceArray<Layer> layers = new AtomicReferenceArray<>(64);
+            int startMask = grid.enter(grid.startCell, 0);
+            Layer first = layer(layers, startMask);
+            setBit(first.visited, grid.startCell);
+            first.frontier.add(grid.startCell);
+            if (isGoal(grid.startCell, startMask)) {
+                return 0;
+            }
+
+            AtomicBoolean found = new AtomicBoolean();
+            for (int depth = 1; ; depth++) {
+                boolean any = false;
+                for (int mask = 0; mask < 64; mask++) {
+                    Layer current = layers.get(mask);
+                    if (current == null || current.frontier.isEmpty()) continue;
+                    any = true;
+                    int fromMask = mask;
+                    forEachCell(current.frontier, cell -> {
+                        for (int direction = 0; direction < 4; direction++) {
+                            int neighbour = neighbour(cell, direction);
+                            if (neighbour < 0) continue;
+                            int newMask = grid.enter(neighbour, fromMask);
+                            if (newMask < 0) continue;
+                            Layer target = layer(layers, newMask);
+                            if (setBit(target.visited, neighbour)) {
+                                target.next.add(neighbour);
+                                if (isGoal(neighbour, newMask)) {
+                                    found.set(true);
+                                }
+                            }
+                        }
+                    });
+                }
+                if (found.get()) {
+                    return depth;
+                }
+                if (!any) {
+                    return -1;
+                }
+                // Next level becomes the frontier; the old frontier is cleared and reused
+                for (int mask = 0; mask < 64; mask++) {
+                    Layer layer = layers.get(mask);
+                    if (layer == null) continue;
+                    Frontier old = layer.frontier;
+                    layer.frontier = layer.next;
+                    old.clear();
+                    layer.next = old;
+                }
+            }
+        }
+
+        private int bidirectional() {
+            AtomicLongArray[] visited = {new AtomicLongArray(words), new AtomicLongArray(words)};
+            Frontier[] frontier = {new Frontier(), new Frontier()};
+            Frontier[] next = {new Frontier(), new Frontier()};
+            long[] frontierSize = {1, 1};
+            int[] depth = {0, 0};
+            if (grid.startCell == grid.exitCell) {
+                return 0;
+            }
+            setBit(visited[0], grid.startCell);
+            frontier[0].add(grid.startCell);
+            setBit(visited[1], grid.exitCell);
+            frontier[1].add(grid.exitCell);
+
+            AtomicBoolean met = new AtomicBoolean();
+            while (frontierSize[0] > 0 && frontierSize[1] > 0) {
+                int side = frontierSize[0] <= frontierSize[1] ? 0 : 1;
+                AtomicLongArray mine = visited[side], theirs = visited[1 - side];
+                Frontier grown = next[side];
+                forEachCell(frontier[side], cell -> {
+                    for (int direction = 0; direction < 4; direction++) {
+                        int neighbour = neighbour(cell, direction);
+                        if (neighbour < 0 || grid.enter(neighbour, 0) < 0) continue;
+                        if (setBit(mine, neighbour)) {
+                            grown.add(neighbour);
+                            if (testBit(theirs, neighbour)) {
+                                met.set(true);
+                            }
+                        }
+                    }
+                });
+                depth[side]++;
+                if (met.get()) {
+                    // Visited sets were disjoint before this level, so every meeting cell is on a shortest path
+                    return depth[0] + depth[1];
+                }
+                Frontier old = frontier[side];
+                frontier[side] = next[side];
+                old.clear();
+                next[side] = old;
+                frontierSize[side] = frontier[side].count();
+            }
+            return -1;
+        }
+
+        private boolean isGoal(int cell, int mask) {
+            return mask == grid.allKeys && (grid.exitCell < 0 || cell == grid.exitCell);
+        }
+
+        // Called from the expansion workers; the lock makes sure only one Layer (a grid-sized visited
+        // bitset) is ever allocated per mask, instead of every racing worker building its own
+        private Layer layer(AtomicReferenceArray<Layer> layers, int mask) {
+            Layer layer = layers.get(mask);
+            if (layer == null) {
+                synchronized (layers) {
+                    layer = layers.get(mask);
+                    if (layer == null) {
+                        layer = new Layer();
+                        layers.set(mask, layer);
+                    }
+                }
+            }
+            return layer;
+        }
+
+        // Neighbour of a cell in direction 0..3 (up, down, left, right), -1 outside the grid
+        private int neighbour(int cell, int direction) {
+            switch (direction) {
+                case 0: return cell >= grid.n ? cell - grid.n : -1;
+                case 1: return cell < (grid.m - 1) * grid.n ? cell + grid.n : -1;
+                case 2: return cell % grid.n > 0 ? cell - 1 : -1;
+                default: return cell % grid.n < grid.n - 1 ? cell + 1 : -1;
+            }
+        }
+
+        // Runs action on every cell of the frontier, one occupied chunk per task, visiting only the
+        // words marked in the word summary
+        private void forEachCell(Frontier frontier, IntConsumer action) {
+            int[] occupied = frontier.occupiedChunks();
+            IntStream.range(0, occupied.length).parallel().forEach(index -> {
+                int chunk = occupied[index];
+                AtomicLongArray words = frontier.cells.get(chunk);
+                for (long summary = frontier.wordSummary.get(chunk); summary != 0; summary &= summary - 1) {
+                    int word = Long.numberOfTrailingZeros(summary);
+                    int base = (chunk << CHUNK_SHIFT) + (word << 6);
+                    for (long bits = words.get(word); bits != 0; bits &= bits - 1) {
+                        action.accept(base + Long.numberOfTrailingZeros(bits));
+                    }
+                }
+            });
+        }
+
+        private static boolean testBit(AtomicLongArray bits, int index) {
+            return (bits.get(index >>> 6) & (1L << index)) != 0;
+        }
+
+        // Sets a bit and returns true if this call changed it from 0 to 1
+        private static boolean setBit(AtomicLongArray bits, int index) {
+            int word = index >>> 6;
+            long bit = 1L << index;
+            while (true) {
+                long current = bits.get(word);
+                if ((current & bit) != 0) {
+                    return false;
+                }
+                if (bits.compareAndSet(word, current, current | bit)) {
+                    return true;
+                }
+            }
+        }
+
+        // Times the sequential key-graph solver against this one on pools of increasing size
+        static void benchmark(int size, int keys) throws IOException {
+            String[] maze = randomMaze(new Random(42), size, size, keys);
+            Path file = Files.createTempFile("maze", ".bin");
+            try {
+                GridFile.write(file, maze);
+                GridFile grid = GridFile.open(file);
+
+                long start = System.nanoTime();
+                int expected = shortestPathAllKeysAndExit(maze);
+                System.out.printf("sequential: %d ms (steps %d)%n", (System.nanoTime() - start) / 1_000_000, expected);
+
+                for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+                    ForkJoinPool pool = new ForkJoinPool(threads);
+                    start = System.nanoTime();
+                    int steps = new ParallelMazeSolver(grid).shortestPath(pool);
+                    System.out.printf("parallel %2d threads: %d ms (steps %d)%n",
+                            threads, (System.nanoTime() - start) / 1_000_000, steps);
+                    pool.shutdown();
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        // Open maze with 20% walls, 'S' in one corner, 'E' in the other and the given number of key/door pairs
+        static String[] randomMaze(Random random, int m, int n, int keys) {
+            char[][] cells = new char[m][n];
+            for (char[] row : cells) {
+                for (int j = 0; j < n; j++) {
+                    row[j] = random.nextInt(5) == 0 ? 'W' : 'P';
+                }
+            }
+            cells[0][0] = 'S';
+            cells[m - 1][n - 1] = 'E';
+            for (int key = 0; key < keys; key++) {
+                cells[1 + random.nextInt(m - 2)][1 + random.nextInt(n - 2)] = (char) ('a' + key);
+                cells[1 + random.nextInt(m - 2)][1 + random.nextInt(n - 2)] = (char) ('A' + key);
+            }
+            String[] grid = new String[m];
+            for (int i = 0; i < m; i++) {
+                grid[i] = new String(cells[i]);
+            }
+            return grid;
+        }
+    }
+
+    // Growable FIFO of ints backed by a power-of-two ring buffer
+    static class IntRingQueue {
+        private int[] items;
+        private int head, size;
+
+        IntRingQueue(int initialCapacity) {
+            items = new int[Integer.highestOneBit(Math.max(initialCapacity, 2) * 2 - 1)];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void offer(int value) {
+            if (size == items.length) {
+                int[] grown = new int[items.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = items[(head + i) & (items.length - 1)];
+                }
+                items = grown;
+                head = 0;
+            }
+            items[(head + size++) & (items.length - 1)] = value;
+        }
+
+        int poll() {
+            int value = items[head];
+            head = (head + 1) & (items.length - 1);
+            size--;
+            return value;
+        }
+
+        void clear() {
+            head = size = 0;
+        }
+    }
+
     static class Node {
         int x, y, steps, keys;
 
@@ -86,8 +947,20 @@ class QA4a {
         }
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         String[] grid = {"SPaPP", "WWWPW", "bPAPB"};
         System.out.println("Minimum steps: " + shortestPathAllKeys(grid));
+        System.out.println("Minimum steps (packed): " + shortestPathAllKeysPacked(grid));
+
+        String[] gridWithExit = {"SPPPP", "WPWWP", "aPEPA", "WWWWb"};
+        System.out.println("Minimum steps to all keys and the exit: " + shortestPathAllKeysAndExit(gridWithExit)); // Output: 12
+
+        MazeIndex index = new MazeIndex(gridWithExit);
+        System.out.println("From S: " + index.shortestPath() + ", from (0, 4): " + index.shortestPath(0, 4)); // Output: 12, 14
+
+        if (args.length > 0 && args[0].equals("bench")) {
+            ParallelMazeSolver.benchmark(3000, 0);
+            ParallelMazeSolver.benchmark(1000, 3);
+        }
     }
 }
\ No newline at end of file
@@ -6,6 +6,11 @@
 // K=3.8 
 // x=2 
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
 
 class Question4b {
     public static class Node {
@@ -72,7 +77,436 @@ class Question4b {
         return closest;
     }
 
-    public static void main(String[] args) {    
+    // O(log n + k) version of findClosest: one descent to the target fills two explicit stacks,
+    // one with the path to values below the target (predecessors) and one above (successors),
+    // then the closer side is popped and advanced k times. No recursion; results are in
+    // increasing order.
+    public int[] findClosestFast(Node root, double target, int k) {
+        int[] lower = new int[k], upper = new int[k];
+        int lowerCount = 0, upperCount = 0;
+        ArrayDeque<Node> predecessors = new ArrayDeque<>();
+        ArrayDeque<Node> successors = new ArrayDeque<>();
+
+        // Descend once: nodes <= target are predecessor candidates, nodes > target successors
+        for (Node node = root; node != null; ) {
+            if (node.data <= target) {
+                predecessors.push(node);
+                node = node.right;
+            } else {
+                successors.push(node);
+                node = node.left;
+            }
+        }
+
+        while (lowerCount + upperCount < k && (!predecessors.isEmpty() || !successors.isEmpty())) {
+            boolean takeLower = successors.isEmpty()
+                    || (!predecessors.isEmpty()
+                        && target - predecessors.peek().data <= successors.peek().data - target);
+            if (takeLower) {
+                Node node = predecessors.pop();
+                lower[lowerCount++] = node.data;
+                // Next predecessor: the largest value in the left subtree
+                for (Node next = node.left; next != null; next = next.right) {
+                    predecessors.push(next);
+                }
+            } else {
+                Node node = successors.pop();
+                upper[upperCount++] = node.data;
+                // Next successor: the smallest value in the right subtree
+                for (Node next = node.right; next != null; next = next.left) {
+                    successors.push(next);
+                }
+            }
+        }
+
+        return mergeClosest(lower, lowerCount, upper, upperCount);
+    }
+
+    // Joins the values taken below the target, collected in decreasing order, with those taken
+    // above it, collected in increasing order, into one increasing array
+    static int[] mergeClosest(int[] lower, int lowerCount, int[] upper, int upperCount) {
+        int[] result = new int[lowerCount + upperCount];
+        for (int i = 0; i < lowerCount; i++) {
+            result[i] = lower[lowerCount - 1 - i];
+        }
+        System.arraycopy(upper, 0, result, lowerCount, upperCount);
+        return result;
+    }
+
+    // Balanced tree bulk-loaded from sorted values into an implicit array in Eytzinger (BFS) order:
+    // the children of slot i are 2i and 2i + 1, so there are no Node objects or pointers, and the
+    // top levels that every search touches share a few cache lines. The descent is branch-free,
+    // and the children of the next levels sit next to each other, which the hardware prefetcher
+    // picks up. A parallel sorted copy serves the outward scans of closest-k and range queries.
+    public static class EytzingerTree {
+        private final int[] layout;  // 1-based, layout[0] unused
+        private final int[] rank;    // Position of layout[i] in sorted order
+        private final int[] sorted;
+        private final int size;
+
+        // Values may be in any order; duplicates are dropped like createBST does
+        public EytzingerTree(int[] values) {
+            int[] copy = values.clone();
+            Arrays.sort(copy);
+            int unique = 0;
+            for (int i = 0; i < copy.length; i++) {
+                if (i == 0 || copy[i] != copy[i - 1]) {
+                    copy[unique++] = copy[i];
+                }
+            }
+            sorted = Arrays.copyOf(copy, unique);
+            size = unique;
+            layout = new int[size + 1];
+            rank = new int[size + 1];
+            fill(1, 0);
+        }
+
+        // In-order walk of the implicit tree assigns sorted values to slots; depth is log2(n)
+        private int fill(int slot, int next) {
+            if (slot <= size) {
+                next = fill(2 * slot, next);
+                layout[slot] = sorted[next];
+                rank[slot] = next++;
+                next = fill(2 * slot + 1, next);
+            }
+            return next;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Sorted position of the first value >= target (size if none)
+        public int lowerBound(double target) {
+            int slot = 1;
+            while (slot <= size) {
+                slot = 2 * slot + (layout[slot] < target ? 1 : 0);
+            }
+            // Undo the right turns taken after the last left turn
+            slot >>= Integer.numberOfTrailingZeros(~slot) + 1;
+            return slot == 0 ? size : rank[slot];
+        }
+
+        public boolean contains(int value) {
+            int position = lowerBound(value);
+            return position < size && sorted[position] == value;
+        }
+
+        // k values closest to target in increasing order, ties going to the smaller value
+        public int[] findClosest(double target, int k) {
+            int start = closestWindowStart(sorted, size, lowerBound(target), target, k);
+            return Arrays.copyOfRange(sorted, start, start + Math.min(k, size));
+        }
+
+        // All values in [from, to]
+        public int[] range(int from, int to) {
+            int start = lowerBound(from);
+            int end = from > to ? start : lowerBound(to + 0.5);
+            return Arrays.copyOfRange(sorted, start, end);
+        }
+    }
+
+    // First index of the min(k, size) values of sorted[0 .. size) closest to target, given the
+    // index of the first value >= target; the window grows outward, ties going to the smaller value
+    static int closestWindowStart(int[] sorted, int size, int lowerBound, double target, int k) {
+        int right = lowerBound, left = right - 1;
+        int count = Math.min(k, size);
+        for (int taken = 0; taken < count; taken++) {
+            if (right >= size || (left >= 0 && target - sorted[left] <= sorted[right] - target)) {
+                left--;
+            } else {
+                right++;
+            }
+        }
+        return left + 1;
+    }
+
+    // Keys of the tree in increasing order, using an explicit stack
+    int[] sortedKeys(Node root) {
+        int[] keys = new int[16];
+        int count = 0;
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+            }
+            keys[count++] = node.data;
+            node = node.right;
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    // k closest values for many targets with one in-order pass over the tree. The result is flat:
+    // the values for targets[i] are at [i * width, (i + 1) * width) with width = min(k, tree size),
+    // each group in increasing order like findClosestFast.
+    public int[] findClosestBatch(Node root, double[] targets, int k) {
+        int[] keys = sortedKeys(root);
+        int[] out = new int[targets.length * Math.min(k, keys.length)];
+        fillClosest(keys, targets, sortedOrder(targets), 0, targets.length, k, out);
+        return out;
+    }
+
+    // Variant writing into a caller-owned buffer of at least targets.length * min(k, tree size) ints;
+    // returns the width used
+    public int findClosestBatch(Node root, double[] targets, int k, int[] out) {
+        int[] keys = sortedKeys(root);
+        int width = Math.min(k, keys.length);
+        if (out.length < targets.length * width) {
+            throw new IllegalArgumentException("Output buffer too small for " + targets.length + " x " + width);
+        }
+        fillClosest(keys, targets, sortedOrder(targets), 0, targets.length, k, out);
+        return width;
+    }
+
+    // Same as findClosestBatch on all cores: the targets are sorted once, and each task takes a
+    // contiguous run of the sorted order, so together the tasks sweep the keys about once
+    public int[] findClosestBatchParallel(Node root, double[] targets, int k) {
+        int[] keys = sortedKeys(root);
+        int[] out = new int[targets.length * Math.min(k, keys.length)];
+        int[] order = sortedOrder(targets);
+        int chunkSize = Math.max(1024, targets.length / (Runtime.getRuntime().availableProcessors() * 4) + 1);
+        int chunks = (targets.length + chunkSize - 1) / chunkSize;
+        IntStream.range(0, chunks).parallel().forEach(chunk ->
+                fillClosest(keys, targets, order, chunk * chunkSize, Math.min(targets.length, (chunk + 1) * chunkSize), k, out));
+        return out;
+    }
+
+    // Solves the targets at order[from .. to), which are in increasing order: a binary search finds
+    // the lower bound of the first one, then the bound only moves forward. Each window is written
+    // into out at the target's original position.
+    static void fillClosest(int[] keys, double[] targets, int[] order, int from, int to, int k, int[] out) {
+        int width = Math.min(k, keys.length);
+        if (width == 0 || from >= to) {
+            return;
+        }
+        int position = firstAtLeast(keys, targets[order[from]]);
+        for (int i = from; i < to; i++) {
+            int index = order[i];
+            double target = targets[index];
+            while (position < keys.length && keys[position] < target) {
+                position++;
+            }
+            int start = closestWindowStart(keys, keys.length, position, target, k);
+            System.arraycopy(keys, start, out, index * width, width);
+        }
+    }
+
+    // Index of the first key >= target in sorted keys (keys.length if none)
+    static int firstAtLeast(int[] keys, double target) {
+        int low = 0, high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Indices of values in increasing order of value; bottom-up merge sort on primitives, so a
+    // large batch does not box every index
+    static int[] sortedOrder(double[] values) {
+        int[] order = new int[values.length], buffer = new int[values.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int run = 1; run < order.length; run *= 2) {
+            for (int left = 0; left < order.length; left += 2 * run) {
+                int middle = Math.min(left + run, order.length), right = Math.min(left + 2 * run, order.length);
+                int i = left, j = middle;
+                for (int out = left; out < right; out++) {
+                    buffer[out] = j >= right || (i < middle && values[order[i]] <= values[order[j]]) ? order[i++] : order[j++];
+                }
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+
+    // Ordered index that can be read while it is being written. Keys live in a ConcurrentSkipListSet,
+    // so inserts and findClosest never lock; a query walks a descending view below the target and an
+    // ascending view above it, which are weakly consistent: they see every key inserted before the
+    // query started and possibly some inserted during it.
+    public static class ConcurrentClosestIndex {
+        private final ConcurrentSkipListSet<Integer> keys = new ConcurrentSkipListSet<>();
+
+        // Returns false for a duplicate, like createBST ignoring it
+        public boolean insert(int data) {
+            return keys.add(data);
+        }
+
+        public int size() {
+            return keys.size();
+        }
+
+        // Same answer as findClosestFast on a tree holding the same keys
+        public int[] findClosest(double target, int k) {
+            int[] lower = new int[k], upper = new int[k];
+            int lowerCount = 0, upperCount = 0;
+
+            // Keys <= target go below, keys > target above, as in the stack-based descent
+            int split = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, Math.floor(target)));
+            Iterator<Integer> below = keys.headSet(split, split <= target).descendingIterator();
+            Iterator<Integer> above = keys.tailSet(split, split > target).iterator();
+            Integer nextBelow = below.hasNext() ? below.next() : null;
+            Integer nextAbove = above.hasNext() ? above.next() : null;
+
+            while (lowerCount + upperCount < k && (nextBelow != null || nextAbove != null)) {
+                if (nextAbove == null || (nextBelow != null && target - nextBelow <= nextAbove - target)) {
+                    lower[lowerCount++] = nextBelow;
+                    nextBelow = below.hasNext() ? below.next() : null;
+                } else {
+                    upper[upperCount++] = nextAbove;
+                    nextAbove = above.hasNext() ? above.next() : null;
+                }
+            }
+
+            return mergeClosest(lower, lowerCount, upper, upperCount);
+        }
+    }
+
+    // Mixed workload (90% findClosest, 10% insert) against the skip-list index and a node tree behind
+    // a read-write lock, at several thread counts
+    static void benchmarkConcurrentIndex(int operationsPerThread) throws InterruptedException {
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            ConcurrentClosestIndex index = new ConcurrentClosestIndex();
+            Question4b tree = new Question4b();
+            Node[] root = {null};
+            ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+            for (int value : new Random(42).ints(100_000, 0, 10_000_000).toArray()) {
+                index.insert(value);
+                root[0] = tree.insertQuietly(root[0], value);
+            }
+
+            long lockFree = runMixed(threads, operationsPerThread, (insert, value) -> {
+                if (insert) {
+                    index.insert(value);
+                } else {
+                    index.findClosest(value + 0.5, 4);
+                }
+            });
+            long locked = runMixed(threads, operationsPerThread, (insert, value) -> {
+                if (insert) {
+                    lock.writeLock().lock();
+                    try {
+                        root[0] = tree.insertQuietly(root[0], value);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                } else {
+                    lock.readLock().lock();
+                    try {
+                        tree.findClosestFast(root[0], value + 0.5, 4);
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                }
+            });
+
+            long total = (long) threads * operationsPerThread;
+            System.out.printf("%2d threads: skip list %.2f M ops/s, locked tree %.2f M ops/s%n",
+                    threads, total * 1e3 / lockFree, total * 1e3 / locked);
+        }
+    }
+
+    interface IndexOperation {
+        void run(boolean insert, int value);
+    }
+
+    private static long runMixed(int threads, int operationsPerThread, IndexOperation operation)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        operation.run(random.nextInt(10) == 0, random.nextInt(10_000_000));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    // Query latency of the node tree against the Eytzinger layout on the same random keys
+    static void benchmarkLayouts(int n, int queries) {
+        Random random = new Random(42);
+        int[] values = random.ints(n, 0, Integer.MAX_VALUE).toArray();
+        double[] targets = random.doubles(queries, 0, Integer.MAX_VALUE).toArray();
+
+        Question4b tree = new Question4b();
+        Node root = null;
+        for (int value : values) {
+            root = tree.insertQuietly(root, value);
+        }
+        EytzingerTree layout = new EytzingerTree(values);
+
+        for (int round = 0; round < 5; round++) { // First rounds warm up the JIT
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (double target : targets) {
+                checksum += tree.findClosestFast(root, target, 2)[0];
+            }
+            long nodeTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (double target : targets) {
+                checksum -= layout.findClosest(target, 2)[0];
+            }
+            long layoutTime = System.nanoTime() - start;
+
+            System.out.printf("node tree: %d ns/query, eytzinger: %d ns/query (checksum %d)%n",
+                    nodeTime / queries, layoutTime / queries, checksum);
+        }
+    }
+
+    // Iterative insert that skips duplicates silently, for building large benchmark trees
+    Node insertQuietly(Node root, int data) {
+        Node node = new Node(data);
+        if (root == null) {
+            return node;
+        }
+        Node current = root;
+        while (true) {
+            if (data < current.data) {
+                if (current.left == null) {
+                    current.left = node;
+                    return root;
+                }
+                current = current.left;
+            } else if (data > current.data) {
+                if (current.right == null) {
+                    current.right = node;
+                    return root;
+                }
+                current = current.right;
+            } else {
+                return root;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
         Question4b tree = new Question4b();
         Node root = null;
 
@@ -90,6 +524,19 @@ class Question4b {
         // Finding k closest values to the target in the BST
         List<Integer> closestValues = tree.findClosest(root, target, k);
         System.out.println(closestValues);
+        System.out.println(Arrays.toString(tree.findClosestFast(root, target, k))); // Output: [3, 4]
+
+        EytzingerTree layout = new EytzingerTree(values);
+        System.out.println(Arrays.toString(layout.findClosest(target, k))); // Output: [3, 4]
+        System.out.println(Arrays.toString(layout.range(2, 4))); // Output: [2, 3, 4]
+
+        double[] targets = {3.8, 0.2, 4.6};
+        System.out.println(Arrays.toString(tree.findClosestBatch(root, targets, k))); // Output: [3, 4, 1, 2, 4, 5]
+
+        if (args.length > 0 && args[0].equals("bench")) {
+            benchmarkLayouts(10_000_000, 2_000_000);
+            benchmarkConcurrentIndex(200_000);
+        }
     }
 }
 
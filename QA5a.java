@@ -2,7 +2,9 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
 
 class AntColony {
 
@@ -28,19 +30,57 @@ class AntColony {
     }
 
     public List<Integer> findPath() {
-        List<Integer> bestPath = null;
-        double bestPathLength = Double.POSITIVE_INFINITY;
-
-        for (int iteration = 0; iteration < 100; iteration++) {
-            List<List<Integer>> antPaths = new ArrayList<>();
-            double[] antPathLengths = new double[numAnts];
+        SplittableRandom random = new SplittableRandom();
+        boolean[] visited = new boolean[distances.length];
+        double[] probabilities = new double[distances.length];
 
+        return run((antPaths, antPathLengths) -> {
             // Generate paths for each ant
             for (int ant = 0; ant < numAnts; ant++) {
-                List<Integer> path = generatePath();
-                antPaths.add(path);
-                antPathLengths[ant] = calculatePathLength(path);
+                antPaths[ant] = generatePath(random, visited, probabilities);
+                antPathLengths[ant] = calculatePathLength(antPaths[ant]);
             }
+        });
+    }
+
+    // Parallel version of findPath. The ants of an iteration are built concurrently in fixed-size
+    // chunks. Each ant gets its own SplittableRandom, split from the seed on the calling thread.
+    // Pheromone is deposited afterwards in ant order on the calling thread, so a given seed gives
+    // the same path whatever the number of threads.
+    public List<Integer> findPathParallel(long seed) {
+        final int antsPerChunk = 16;
+        int chunks = (numAnts + antsPerChunk - 1) / antsPerChunk;
+        SplittableRandom[] antRandoms = new SplittableRandom[numAnts];
+        SplittableRandom master = new SplittableRandom(seed);
+
+        return run((antPaths, antPathLengths) -> {
+            for (int ant = 0; ant < numAnts; ant++) {
+                antRandoms[ant] = master.split();
+            }
+
+            // Build tours concurrently; pheromones are only read here
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                boolean[] visited = new boolean[distances.length];
+                double[] probabilities = new double[distances.length];
+                int end = Math.min(numAnts, (chunk + 1) * antsPerChunk);
+                for (int ant = chunk * antsPerChunk; ant < end; ant++) {
+                    antPaths[ant] = generatePath(antRandoms[ant], visited, probabilities);
+                    antPathLengths[ant] = calculatePathLength(antPaths[ant]);
+                }
+            });
+        });
+    }
+
+    // Iteration loop shared by both modes: buildTours fills in every ant's tour and its length, then
+    // pheromone is deposited, the best tour so far is kept and the trails decay. Returns null without ants.
+    private List<Integer> run(BiConsumer<int[][], double[]> buildTours) {
+        int[][] antPaths = new int[numAnts][];
+        double[] antPathLengths = new double[numAnts];
+        int[] bestPath = null;
+        double bestPathLength = Double.POSITIVE_INFINITY;
+
+        for (int iteration = 0; iteration < 100; iteration++) {
+            buildTours.accept(antPaths, antPathLengths);
 
             // Update pheromones
             updatePheromones(antPaths, antPathLengths);
@@ -49,7 +89,7 @@ class AntColony {
             for (int ant = 0; ant < numAnts; ant++) {
                 if (antPathLengths[ant] < bestPathLength) {
                     bestPathLength = antPathLengths[ant];
-                    bestPath = antPaths.get(ant);
+                    bestPath = antPaths[ant];
                 }
             }
 
@@ -61,23 +101,30 @@ class AntColony {
             }
         }
 
-        return bestPath;
+        if (bestPath == null) {
+            return null;
+        }
+        List<Integer> result = new ArrayList<>();
+        for (int city : bestPath) {
+            result.add(city);
+        }
+        return result;
     }
 
-    private List<Integer> generatePath() {
-        List<Integer> path = new ArrayList<>();
-        boolean[] visited = new boolean[distances.length];
-        Random random = new Random();
+    // visited and probabilities are scratch buffers, reused across the tours of one thread
+    private int[] generatePath(SplittableRandom random, boolean[] visited, double[] probabilities) {
+        int[] path = new int[distances.length];
+        Arrays.fill(visited, false);
 
         // Start from a random city
         int currentCity = random.nextInt(distances.length);
-        path.add(currentCity);
+        path[0] = currentCity;
         visited[currentCity] = true;
 
         // Move to the next city based on pheromone levels and distances
         for (int step = 1; step < distances.length; step++) {
-            int nextCity = selectNextCity(currentCity, visited);
-            path.add(nextCity);
+            int nextCity = selectNextCity(currentCity, visited, probabilities, random);
+            path[step] = nextCity;
             visited[nextCity] = true;
             currentCity = nextCity;
         }
@@ -85,9 +132,9 @@ class AntColony {
         return path;
     }
 
-    private int selectNextCity(int currentCity, boolean[] visited) {
-        double[] probabilities = new double[distances.length];
+    private int selectNextCity(int currentCity, boolean[] visited, double[] probabilities, SplittableRandom random) {
         double totalProbability = 0.0;
+        int lastUnvisited = -1;
 
         for (int i = 0; i < distances.length; i++) {
             if (!visited[i]) {
@@ -95,11 +142,11 @@ class AntColony {
                 double distance = Math.pow(1.0 / distances[currentCity][i], beta);
                 probabilities[i] = pheromone * distance;
                 totalProbability += probabilities[i];
+                lastUnvisited = i;
             }
         }
 
         // Select the next city based on probabilities
-        Random random = new Random();
         double randomValue = random.nextDouble() * totalProbability;
 
         for (int i = 0; i < probabilities.length; i++) {
@@ -111,40 +158,39 @@ class AntColony {
             }
         }
 
-        // Should not reach here
-        return -1;
+        // Only reached through floating-point rounding of the running total
+        return lastUnvisited;
     }
 
-    private double calculatePathLength(List<Integer> path) {
+    private double calculatePathLength(int[] path) {
         double length = 0.0;
 
-        for (int i = 0; i < path.size() - 1; i++) {
-            length += distances[path.get(i)][path.get(i + 1)];
+        for (int i = 0; i < path.length - 1; i++) {
+            length += distances[path[i]][path[i + 1]];
         }
 
-        length += distances[path.get(path.size() - 1)][path.get(0)]; // Return to the starting city
+        length += distances[path[path.length - 1]][path[0]]; // Return to the starting city
 
         return length;
     }
 
-    private void updatePheromones(List<List<Integer>> antPaths, double[] antPathLengths) {
-        for (int i = 0; i < antPaths.size(); i++) {
-            List<Integer> path = antPaths.get(i);
+    private double calculatePathLength(List<Integer> path) {
+        return calculatePathLength(path.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // Deposits pheromone along every tour, closing edge included, in ant order
+    private void updatePheromones(int[][] antPaths, double[] antPathLengths) {
+        for (int i = 0; i < antPaths.length; i++) {
+            int[] path = antPaths[i];
 
-            for (int j = 0; j < path.size() - 1; j++) {
-                int city1 = path.get(j);
-                int city2 = path.get(j + 1);
+            for (int j = 0; j < path.length; j++) {
+                int city1 = path[j];
+                int city2 = path[(j + 1) % path.length]; // Wraps to close the tour
 
                 // Update pheromone level based on the length of the path
                 pheromones[city1][city2] += 1.0 / antPathLengths[i];
                 pheromones[city2][city1] += 1.0 / antPathLengths[i];
             }
-
-            // Update pheromone for the last edge connecting the last and first cities
-            int lastCity = path.get(path.size() - 1);
-            int firstCity = path.get(0);
-            pheromones[lastCity][firstCity] += 1.0 / antPathLengths[i];
-            pheromones[firstCity][lastCity] += 1.0 / antPathLengths[i];
         }
     }
 
@@ -166,5 +212,10 @@ class AntColony {
 
         System.out.println("Best Path: " + bestPath);
         System.out.println("Best Path Length: " + antColony.calculatePathLength(bestPath));
+
+        AntColony parallelColony = new AntColony(distances, numAnts, decay, alpha, beta);
+        List<Integer> parallelPath = parallelColony.findPathParallel(42L);
+        System.out.println("Best Path (parallel, seed 42): " + parallelPath);
+        System.out.println("Best Path Length: " + parallelColony.calculatePathLength(parallelPath));
     }
 }